@@ -0,0 +1,122 @@
+package com.selimhorri.app.business.aggregation.util;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One fan-out round: branches forked here share a single deadline, a branch which
+ * fails, misses the deadline or finds the executor saturated resolves to null and is
+ * reported as unavailable. A branch missing the deadline is interrupted, and the Feign
+ * calls it makes are bounded by the deadline through {@link #remainingMillis()}.
+ */
+@Slf4j
+public class FanOut {
+	
+	private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+	
+	private final AsyncTaskExecutor executor;
+	private final long deadline;
+	private final Set<String> unavailable = Collections.synchronizedSet(new TreeSet<>());
+	
+	FanOut(final AsyncTaskExecutor executor, final long timeoutNanos) {
+		this.executor = executor;
+		this.deadline = System.nanoTime() + timeoutNanos;
+	}
+	
+	public <T> Branch<T> fork(final String name, final Supplier<T> supplier) {
+		try {
+			return new Branch<>(name, this.executor.submit(() -> {
+				final Long previous = DEADLINE.get();
+				DEADLINE.set(this.deadline);
+				try {
+					return supplier.get();
+				}
+				finally {
+					if (previous == null)
+						DEADLINE.remove();
+					else
+						DEADLINE.set(previous);
+				}
+			}));
+		}
+		catch (RejectedExecutionException e) {
+			log.warn("Branch {} rejected, aggregation executor is saturated", name);
+			return new Branch<>(name, null);
+		}
+	}
+	
+	public <T> T join(final Branch<T> branch) {
+		if (branch.future == null) {
+			this.markUnavailable(branch.name);
+			return null;
+		}
+		try {
+			return branch.future.get(Math.max(0L, this.deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e) {
+			branch.future.cancel(true);
+			log.warn("Branch {} timed out, returning partial result", branch.name);
+		}
+		catch (ExecutionException e) {
+			log.warn("Branch {} failed, returning partial result: {}", branch.name, e.getCause().getMessage());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.markUnavailable(branch.name);
+		return null;
+	}
+	
+	public void markUnavailable(final String name) {
+		this.unavailable.add(name);
+	}
+	
+	public Set<String> getUnavailable() {
+		return this.unavailable.isEmpty() ? null : Set.copyOf(this.unavailable);
+	}
+	
+	/**
+	 * Time left before the deadline of the branch running on this thread, -1 outside of a branch.
+	 */
+	public static long remainingMillis() {
+		final Long deadline = DEADLINE.get();
+		return deadline == null ? -1L : Math.max(0L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+	}
+	
+	public static final class Branch<T> {
+		
+		private final String name;
+		// null when the executor rejected the branch
+		private final Future<T> future;
+		
+		private Branch(final String name, final Future<T> future) {
+			this.name = name;
+			this.future = future;
+		}
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,35 @@
+package com.selimhorri.app.business.aggregation.util;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.config.executor.AggregationProperties;
+
+@Component
+public class FanOutUtil {
+	
+	private final AsyncTaskExecutor executor;
+	private final AggregationProperties aggregationProperties;
+	
+	public FanOutUtil(@Qualifier("aggregationExecutor") final AsyncTaskExecutor executor,
+			final AggregationProperties aggregationProperties) {
+		this.executor = executor;
+		this.aggregationProperties = aggregationProperties;
+	}
+	
+	public FanOut begin() {
+		return new FanOut(this.executor, this.aggregationProperties.getBranchTimeout().toNanos());
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -12,6 +12,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.auth.model.request.AuthenticationRequest;
+import com.selimhorri.app.business.auth.model.request.RefreshTokenRequest;
+import com.selimhorri.app.business.auth.model.request.RevokeTokenRequest;
 import com.selimhorri.app.business.auth.model.response.AuthenticationResponse;
 import com.selimhorri.app.business.auth.service.AuthenticationService;
 
@@ -31,10 +33,29 @@ public class AuthenticationController {
 			@RequestBody 
 			@NotNull(message = "") 
 			@Valid final AuthenticationRequest authenticationRequest) {
-		log.info("**Authentication controller, proceed with the request*\n");
+		log.debug("**Authentication controller, proceed with the request*\n");
 		return ResponseEntity.ok(this.authenticationService.authenticate(authenticationRequest));
 	}
 	
+	@PostMapping("/refresh")
+	public ResponseEntity<AuthenticationResponse> refresh(
+			@RequestBody 
+			@NotNull(message = "") 
+			@Valid final RefreshTokenRequest refreshTokenRequest) {
+		log.debug("**Authentication controller, proceed with the refresh request*\n");
+		return ResponseEntity.ok(this.authenticationService.refresh(refreshTokenRequest));
+	}
+	
+	@PostMapping("/revoke")
+	public ResponseEntity<Void> revoke(
+			@RequestBody 
+			@NotNull(message = "") 
+			@Valid final RevokeTokenRequest revokeTokenRequest) {
+		log.debug("**Authentication controller, proceed with the revoke request*\n");
+		this.authenticationService.revoke(revokeTokenRequest);
+		return ResponseEntity.noContent().build();
+	}
+	
 }
 
 
@@ -0,0 +1,33 @@
+package com.selimhorri.app.business.auth.model.request;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotBlank;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class RefreshTokenRequest implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@NotBlank(message = "*Refresh token must not be empty!**")
+	private String refreshToken;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,34 @@
+package com.selimhorri.app.business.auth.model.request;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotBlank;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class RevokeTokenRequest implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	// an access or a refresh token, a refresh token also revokes the access token issued with it
+	@NotBlank(message = "*Token must not be empty!**")
+	private String token;
+	
+}
+
+
+
+
+
+
+
+
+
+
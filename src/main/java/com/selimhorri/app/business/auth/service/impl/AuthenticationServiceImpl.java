@@ -9,12 +9,20 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.business.auth.model.request.AuthenticationRequest;
+import com.selimhorri.app.business.auth.model.request.RefreshTokenRequest;
+import com.selimhorri.app.business.auth.model.request.RevokeTokenRequest;
 import com.selimhorri.app.business.auth.model.response.AuthenticationResponse;
 import com.selimhorri.app.business.auth.service.AuthenticationService;
 import com.selimhorri.app.business.user.model.CredentialDto;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.exception.wrapper.IllegalAuthenticationCredentialsException;
+import com.selimhorri.app.exception.wrapper.UnauthorizedException;
+import com.selimhorri.app.jwt.model.JwtClaims;
+import com.selimhorri.app.jwt.model.JwtTokenPair;
 import com.selimhorri.app.jwt.service.JwtService;
+import com.selimhorri.app.jwt.service.TokenRevocationService;
+
+import io.jsonwebtoken.JwtException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,12 +37,13 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 	private final AuthenticationManager authenticationManager;
 	private final UserDetailsService userDetailsService;
 	private final JwtService jwtService;
+	private final TokenRevocationService tokenRevocationService;
 	private final RestTemplate restTemplate;
 
 	@Override
 	public AuthenticationResponse authenticate(final AuthenticationRequest authenticationRequest) {
 
-		log.info("** AuthenticationResponse, authenticate user service*\n");
+		log.debug("** AuthenticationResponse, authenticate user service*\n");
 
 		try {
 			this.authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
@@ -42,14 +51,65 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 		} catch (BadCredentialsException e) {
 			throw new IllegalAuthenticationCredentialsException("#### Bad credentials! ####");
 		}
-		CredentialDto credentialDto = this.restTemplate.getForObject(API_URL + "/username/" + authenticationRequest.getUsername(),
-				CredentialDto.class);
-				System.out.println(credentialDto.getPassword());
-				System.out.println(credentialDto.getUsername());
-				System.out.println("++++++++++++++");
-
-		return new AuthenticationResponse(this.jwtService.generateToken(this.userDetailsService
-				.loadUserByUsername(authenticationRequest.getUsername()), credentialDto.getUserDto().getUserId().toString()));
+		CredentialDto credentialDto = this.restTemplate.getForObject(API_URL + "/username/{username}",
+				CredentialDto.class, authenticationRequest.getUsername());
+
+		return this.issueTokens(this.userDetailsService.loadUserByUsername(authenticationRequest.getUsername()),
+				credentialDto.getUserDto().getUserId().toString());
+	}
+
+	/**
+	 * Refresh tokens are single use: revoking the presented one is also the check that it was
+	 * not used before, so a replayed token fails even when two refreshes race.
+	 */
+	@Override
+	public AuthenticationResponse refresh(final RefreshTokenRequest refreshTokenRequest) {
+
+		log.debug("** AuthenticationResponse, refresh tokens service*\n");
+
+		final JwtClaims claims = this.extractRefreshClaims(refreshTokenRequest.getRefreshToken());
+		if (!this.tokenRevocationService.revoke(claims.getTokenId(), claims.getExpiration()))
+			throw new UnauthorizedException("#### Refresh token was revoked! ####");
+
+		// the account may have been disabled since the refresh token was issued
+		final UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+		if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked())
+			throw new UnauthorizedException("#### Account is disabled or locked! ####");
+		return this.issueTokens(userDetails, claims.getUserId());
+	}
+
+	/**
+	 * Revoking a refresh token also revokes its access token, kept until the refresh token
+	 * expires since that bounds the access token's own expiry.
+	 */
+	@Override
+	public void revoke(final RevokeTokenRequest revokeTokenRequest) {
+		final JwtClaims claims = this.extractClaims(revokeTokenRequest.getToken());
+		if (claims.getTokenId() == null)
+			throw new UnauthorizedException("#### Token cannot be revoked! ####");
+		this.tokenRevocationService.revoke(claims.getTokenId(), claims.getExpiration());
+		if (claims.isRefreshToken() && claims.getAccessTokenId() != null)
+			this.tokenRevocationService.revoke(claims.getAccessTokenId(), claims.getExpiration());
+	}
+
+	private JwtClaims extractRefreshClaims(final String refreshToken) {
+		final JwtClaims claims = this.extractClaims(refreshToken);
+		if (!claims.isRefreshToken())
+			throw new UnauthorizedException("#### Invalid refresh token! ####");
+		return claims;
+	}
+
+	private JwtClaims extractClaims(final String token) {
+		try {
+			return this.jwtService.extractAllClaims(token);
+		} catch (JwtException e) {
+			throw new UnauthorizedException("#### Invalid token! ####");
+		}
+	}
+
+	private AuthenticationResponse issueTokens(final UserDetails userDetails, final String userId) {
+		final JwtTokenPair tokenPair = this.jwtService.generateTokenPair(userDetails, userId);
+		return new AuthenticationResponse(tokenPair.getAccessToken(), tokenPair.getRefreshToken());
 	}
 
 }
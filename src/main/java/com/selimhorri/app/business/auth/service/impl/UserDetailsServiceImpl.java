@@ -25,10 +25,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
 	@Override
 	public UserDetails loadUserByUsername(final String username) throws UsernameNotFoundException {
-		log.info("**UserDetails, load user by username*\n");
+		log.debug("**UserDetails, load user by username*\n");
 		try {
-			CredentialDto credentialDto = this.restTemplate.getForObject(API_URL + "/username/" + username,
-					CredentialDto.class);
+			CredentialDto credentialDto = this.restTemplate.getForObject(API_URL + "/username/{username}",
+					CredentialDto.class, username);
 			if (credentialDto == null) {
 				log.error("User not found with username: {}", username);
 				throw new UsernameNotFoundException("User not found with username: " + username);
@@ -14,6 +14,8 @@ import com.selimhorri.app.business.order.model.OrderDto;
 import com.selimhorri.app.business.payment.model.PaymentDto;
 import com.selimhorri.app.business.user.model.AddressDto;
 import com.selimhorri.app.business.user.model.CredentialDto;
+import com.selimhorri.app.config.timing.ServerTiming;
+import com.selimhorri.app.config.timing.ServerTiming.Span;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.exception.wrapper.UnauthorizedException;
 
@@ -29,44 +31,54 @@ public class AuthUtil {
     public void canActivate(HttpServletRequest request, String userId, UserDetails userDetails) {
         if (userId != null) {
             String authUserId = (String) request.getAttribute("userId");
-            boolean isAdmin = getIsAdmin(userDetails);
+            boolean isAdmin = isAdmin(userDetails);
             if (!isAdmin && !authUserId.equals(userId)) {
                 throw new UnauthorizedException("You can access to resources of your own");
             }
         }
     }
 
+    /**
+     * Timed as a whole, every hop of the lookup is part of the owner span.
+     */
     public String getOwner(String id, ResourceType resourceType) {
+        long start = ServerTiming.start();
+        try {
+            return lookupOwner(id, resourceType);
+        } finally {
+            ServerTiming.stop(Span.OWNER, start);
+        }
+    }
+
+    private String lookupOwner(String id, ResourceType resourceType) {
         String apiUrl = "";
         try {
             switch (resourceType) {
                 case CREDENTIALS:
-                    apiUrl = AppConstant.DiscoveredDomainsApi.USER_SERVICE_HOST + "/api/credentials/" + id;
-                    CredentialDto credentialDto = restTemplate.getForObject(apiUrl, CredentialDto.class);
+                    apiUrl = AppConstant.DiscoveredDomainsApi.USER_SERVICE_HOST + "/api/credentials/{id}";
+                    CredentialDto credentialDto = restTemplate.getForObject(apiUrl, CredentialDto.class, id);
                     return credentialDto.getUserDto().getUserId().toString();
                 case ADDRESSES:
-                    apiUrl = AppConstant.DiscoveredDomainsApi.USER_SERVICE_HOST + "/api/address/" + id;
-                    AddressDto addressDto = restTemplate.getForObject(apiUrl, AddressDto.class);
+                    apiUrl = AppConstant.DiscoveredDomainsApi.USER_SERVICE_HOST + "/api/address/{id}";
+                    AddressDto addressDto = restTemplate.getForObject(apiUrl, AddressDto.class, id);
                     return addressDto.getUserDto().getUserId().toString();
                 case CARTS:
-                    apiUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/carts/" + id;
-                    CartDto cartDto = restTemplate.getForObject(apiUrl, CartDto.class);
+                    apiUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/carts/{id}";
+                    CartDto cartDto = restTemplate.getForObject(apiUrl, CartDto.class, id);
                     return cartDto.getUserDto().getUserId().toString();
                 case ORDERS:
-                    apiUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/orders/" + id;
-                    OrderDto orderDto = restTemplate.getForObject(apiUrl, OrderDto.class);
-                    apiUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/carts/"
-                            + orderDto.getCartDto().getCartId();
-                    CartDto orderCartDto = restTemplate.getForObject(apiUrl, CartDto.class);
+                    apiUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/orders/{id}";
+                    OrderDto orderDto = restTemplate.getForObject(apiUrl, OrderDto.class, id);
+                    apiUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/carts/{id}";
+                    CartDto orderCartDto = restTemplate.getForObject(apiUrl, CartDto.class, orderDto.getCartDto().getCartId());
                     return orderCartDto.getUserDto().getUserId().toString();
                 case PAYMENTS:
-                    apiUrl = AppConstant.DiscoveredDomainsApi.PAYMENT_SERVICE_HOST + "/api/payments/" + id;
-                    PaymentDto paymentDto = restTemplate.getForObject(apiUrl, PaymentDto.class);
-                    apiUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/orders/" + paymentDto.getOrderDto().getOrderId();
-                    OrderDto paymentOrderDto = restTemplate.getForObject(apiUrl, OrderDto.class);
-                    apiUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/carts/"
-                            + paymentOrderDto.getCartDto().getCartId();
-                    CartDto paymentCartDto = restTemplate.getForObject(apiUrl, CartDto.class);
+                    apiUrl = AppConstant.DiscoveredDomainsApi.PAYMENT_SERVICE_HOST + "/api/payments/{id}";
+                    PaymentDto paymentDto = restTemplate.getForObject(apiUrl, PaymentDto.class, id);
+                    apiUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/orders/{id}";
+                    OrderDto paymentOrderDto = restTemplate.getForObject(apiUrl, OrderDto.class, paymentDto.getOrderDto().getOrderId());
+                    apiUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/carts/{id}";
+                    CartDto paymentCartDto = restTemplate.getForObject(apiUrl, CartDto.class, paymentOrderDto.getCartDto().getCartId());
                     return paymentCartDto.getUserDto().getUserId().toString();
                 default:
                     return null;
@@ -76,7 +88,7 @@ public class AuthUtil {
         }
     }
 
-    private boolean getIsAdmin(UserDetails userDetails) {
+    public boolean isAdmin(UserDetails userDetails) {
         return userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .anyMatch(role -> role.equals("ROLE_ADMIN"));
@@ -0,0 +1,41 @@
+package com.selimhorri.app.business.dashboard.controller;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.business.dashboard.model.DashboardDto;
+import com.selimhorri.app.business.dashboard.service.DashboardService;
+import com.selimhorri.app.exception.wrapper.UnauthorizedException;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+	
+	private final DashboardService dashboardService;
+	
+	@GetMapping
+	public ResponseEntity<DashboardDto> findMine(final HttpServletRequest request) {
+		final String userId = (String) request.getAttribute("userId");
+		if (userId == null)
+			throw new UnauthorizedException("Token does not carry a userId");
+		return ResponseEntity.ok(this.dashboardService.findByUserId(userId));
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
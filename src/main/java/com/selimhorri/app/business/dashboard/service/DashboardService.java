@@ -0,0 +1,9 @@
+package com.selimhorri.app.business.dashboard.service;
+
+import com.selimhorri.app.business.dashboard.model.DashboardDto;
+
+public interface DashboardService {
+	
+	DashboardDto findByUserId(final String userId);
+	
+}
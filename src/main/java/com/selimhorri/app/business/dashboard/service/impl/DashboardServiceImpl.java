@@ -0,0 +1,139 @@
+package com.selimhorri.app.business.dashboard.service.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.business.aggregation.util.FanOut;
+import com.selimhorri.app.business.aggregation.util.FanOutUtil;
+import com.selimhorri.app.business.dashboard.model.DashboardDto;
+import com.selimhorri.app.business.dashboard.service.DashboardService;
+import com.selimhorri.app.business.favourite.model.FavouriteDto;
+import com.selimhorri.app.business.favourite.model.response.FavouriteFavouriteServiceCollectionDtoResponse;
+import com.selimhorri.app.business.favourite.service.FavouriteClientService;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.CartOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.order.service.CartClientService;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.business.user.model.UserDto;
+import com.selimhorri.app.business.user.service.UserClientService;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class DashboardServiceImpl implements DashboardService {
+	
+	private final FanOutUtil fanOutUtil;
+	private final UserClientService userClientService;
+	private final CartClientService cartClientService;
+	private final OrderClientService orderClientService;
+	private final FavouriteClientService favouriteClientService;
+	private final PaymentClientService paymentClientService;
+	
+	@Override
+	public DashboardDto findByUserId(final String userId) {
+		
+		final FanOut fanOut = this.fanOutUtil.begin();
+		final var user = fanOut.fork("user", () -> this.userClientService.findById(userId).getBody());
+		final var carts = fanOut.fork("carts", () -> this.cartClientService.findAll().getBody());
+		final var orders = fanOut.fork("orders", () -> this.orderClientService.findAll().getBody());
+		final var favourites = fanOut.fork("favourites", () -> this.favouriteClientService.findAll().getBody());
+		
+		final Integer ownerId = Integer.valueOf(userId);
+		final List<CartDto> cartDtos = this.filterCarts(fanOut.join(carts), ownerId);
+		final List<OrderDto> orderDtos = this.filterOrders(fanOut.join(orders), cartDtos, ownerId);
+		
+		// payments only reference their order, the system wide listing is fetched only once
+		// the user's orders are known and some of them can have been paid
+		if (orderDtos == null)
+			fanOut.markUnavailable("payments");
+		final List<PaymentDto> paymentDtos = orderDtos == null ? null
+				: orderDtos.isEmpty() ? List.of()
+				: this.filterPayments(fanOut.join(fanOut.fork("payments",
+						() -> this.paymentClientService.findAll().getBody())), orderDtos);
+		
+		return DashboardDto.builder()
+				.userDto(fanOut.join(user))
+				.cartDtos(cartDtos)
+				.orderDtos(orderDtos)
+				.favouriteDtos(this.filterFavourites(fanOut.join(favourites), ownerId))
+				.paymentDtos(paymentDtos)
+				.unavailableSections(fanOut.getUnavailable())
+				.build();
+	}
+	
+	private List<CartDto> filterCarts(final CartOrderServiceDtoCollectionResponse response, final Integer ownerId) {
+		if (response == null)
+			return null;
+		return nullSafe(response.getCollection()).stream()
+				.filter(cartDto -> ownerId.equals(cartDto.getUserId())
+						|| (cartDto.getUserDto() != null && ownerId.equals(cartDto.getUserDto().getUserId())))
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	private List<OrderDto> filterOrders(final OrderOrderServiceDtoCollectionResponse response,
+			final List<CartDto> cartDtos, final Integer ownerId) {
+		if (response == null)
+			return null;
+		final Set<Integer> cartIds = cartDtos == null ? Set.of() : cartDtos.stream()
+				.map(CartDto::getCartId)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableSet());
+		return nullSafe(response.getCollection()).stream()
+				.filter(orderDto -> orderDto.getCartDto() != null)
+				.filter(orderDto -> cartIds.contains(orderDto.getCartDto().getCartId())
+						|| ownerId.equals(orderDto.getCartDto().getUserId()))
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	private List<PaymentDto> filterPayments(final PaymentPaymentServiceDtoCollectionResponse response,
+			final List<OrderDto> orderDtos) {
+		if (response == null)
+			return null;
+		final Set<Integer> orderIds = orderDtos.stream()
+				.map(OrderDto::getOrderId)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableSet());
+		return nullSafe(response.getCollection()).stream()
+				.filter(paymentDto -> paymentDto.getOrderDto() != null
+						&& orderIds.contains(paymentDto.getOrderDto().getOrderId()))
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	private List<FavouriteDto> filterFavourites(final FavouriteFavouriteServiceCollectionDtoResponse response,
+			final Integer ownerId) {
+		if (response == null)
+			return null;
+		return nullSafe(response.getCollection()).stream()
+				.filter(favouriteDto -> ownerId.equals(favouriteDto.getUserId()))
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	private static <T> Collection<T> nullSafe(final Collection<T> collection) {
+		return collection == null ? Collections.emptyList() : collection;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
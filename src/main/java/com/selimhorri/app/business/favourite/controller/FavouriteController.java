@@ -20,6 +20,7 @@ import com.selimhorri.app.business.favourite.model.FavouriteDto;
 import com.selimhorri.app.business.favourite.model.FavouriteId;
 import com.selimhorri.app.business.favourite.model.response.FavouriteFavouriteServiceCollectionDtoResponse;
 import com.selimhorri.app.business.favourite.service.FavouriteClientService;
+import com.selimhorri.app.business.favourite.service.UserFavouriteService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -31,12 +32,21 @@ public class FavouriteController {
 	@Autowired
 	private AuthUtil authUtil;
 	private final FavouriteClientService favouriteClientService;
+	private final UserFavouriteService userFavouriteService;
 
 	@GetMapping
 	public ResponseEntity<FavouriteFavouriteServiceCollectionDtoResponse> findAll() {
 		return ResponseEntity.ok(this.favouriteClientService.findAll().getBody());
 	}
 
+	@GetMapping("/user/{userId}")
+	public ResponseEntity<FavouriteFavouriteServiceCollectionDtoResponse> findAllByUserId(
+			@PathVariable("userId") final String userId,
+			HttpServletRequest request, @AuthenticationPrincipal UserDetails userDetails) {
+		authUtil.canActivate(request, userId, userDetails);
+		return ResponseEntity.ok(this.userFavouriteService.findAllByUserId(userId));
+	}
+
 	@GetMapping("/{userId}/{productId}")
 	public ResponseEntity<FavouriteDto> findById(
 			@PathVariable("userId") final String userId,
@@ -0,0 +1,9 @@
+package com.selimhorri.app.business.favourite.service;
+
+import com.selimhorri.app.business.favourite.model.response.FavouriteFavouriteServiceCollectionDtoResponse;
+
+public interface UserFavouriteService {
+	
+	FavouriteFavouriteServiceCollectionDtoResponse findAllByUserId(final String userId);
+	
+}
@@ -0,0 +1,81 @@
+package com.selimhorri.app.business.favourite.service.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.business.favourite.model.FavouriteDto;
+import com.selimhorri.app.business.favourite.model.ProductDto;
+import com.selimhorri.app.business.favourite.model.response.FavouriteFavouriteServiceCollectionDtoResponse;
+import com.selimhorri.app.business.favourite.service.FavouriteClientService;
+import com.selimhorri.app.business.favourite.service.UserFavouriteService;
+import com.selimhorri.app.business.product.service.ProductCacheService;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class UserFavouriteServiceImpl implements UserFavouriteService {
+	
+	private final FavouriteClientService favouriteClientService;
+	private final ProductCacheService productCacheService;
+	
+	@Override
+	public FavouriteFavouriteServiceCollectionDtoResponse findAllByUserId(final String userId) {
+		
+		if (userId == null || !userId.matches(AppConstant.ID_PATTERN))
+			throw new UserObjectNotFoundException("User with id: " + userId + " not found");
+		final Integer ownerId = Integer.valueOf(userId);
+		final FavouriteFavouriteServiceCollectionDtoResponse response = this.favouriteClientService.findAll().getBody();
+		if (response == null || response.getCollection() == null)
+			return new FavouriteFavouriteServiceCollectionDtoResponse(Collections.emptyList());
+		
+		final List<FavouriteDto> favouriteDtos = response.getCollection().stream()
+				.filter(favouriteDto -> ownerId.equals(favouriteDto.getUserId()))
+				.collect(Collectors.toList());
+		
+		// cache hits are served locally, all misses are resolved together by at most one upstream call
+		final Map<Integer, com.selimhorri.app.business.product.model.ProductDto> productDtos = this.productCacheService
+				.findAllByIds(favouriteDtos.stream()
+						.map(FavouriteDto::getProductId)
+						.filter(Objects::nonNull)
+						.collect(Collectors.toSet()));
+		
+		favouriteDtos.forEach(favouriteDto -> {
+			final var productDto = productDtos.get(favouriteDto.getProductId());
+			if (productDto != null)
+				favouriteDto.setProductDto(toFavouriteProduct(productDto));
+		});
+		return new FavouriteFavouriteServiceCollectionDtoResponse(favouriteDtos);
+	}
+	
+	private static ProductDto toFavouriteProduct(final com.selimhorri.app.business.product.model.ProductDto productDto) {
+		return ProductDto.builder()
+				.productId(productDto.getProductId())
+				.productTitle(productDto.getProductTitle())
+				.imageUrl(productDto.getImageUrl())
+				.sku(productDto.getSku())
+				.priceUnit(productDto.getPriceUnit())
+				.quantity(productDto.getQuantity())
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
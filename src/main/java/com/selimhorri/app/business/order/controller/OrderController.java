@@ -1,6 +1,9 @@
 package com.selimhorri.app.business.order.controller;
 
+import java.io.IOException;
+
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -21,9 +24,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.auth.enums.ResourceType;
 import com.selimhorri.app.business.auth.util.AuthUtil;
+import com.selimhorri.app.business.order.model.OrderDetailDto;
 import com.selimhorri.app.business.order.model.OrderDto;
 import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
 import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.order.service.OrderDetailService;
+import com.selimhorri.app.business.passthrough.util.PassThroughRelay;
 
 import lombok.RequiredArgsConstructor;
 
@@ -35,9 +41,17 @@ public class OrderController {
 	@Autowired
 	private AuthUtil authUtil;
 	private final OrderClientService orderClientService;
+	private final OrderDetailService orderDetailService;
+	private final PassThroughRelay passThroughRelay;
 
 	@GetMapping
-	public ResponseEntity<OrderOrderServiceDtoCollectionResponse> findAll() {
+	public ResponseEntity<OrderOrderServiceDtoCollectionResponse> findAll(final HttpServletRequest request,
+			final HttpServletResponse response) throws IOException {
+		// admins only, nothing in the body to check
+		if (this.passThroughRelay.isEnabled(PassThroughRelay.ORDERS, request)) {
+			this.passThroughRelay.relay(this.orderClientService.findAllRaw(), request, response);
+			return null;
+		}
 		return ResponseEntity.ok(this.orderClientService.findAll().getBody());
 	}
 
@@ -50,6 +64,14 @@ public class OrderController {
 		return ResponseEntity.ok(this.orderClientService.findById(orderId).getBody());
 	}
 
+	@GetMapping("/{orderId}/detail")
+	public ResponseEntity<OrderDetailDto> findDetailById(
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank!") @Valid final String orderId,
+			HttpServletRequest request, @AuthenticationPrincipal UserDetails userDetails) {
+		return ResponseEntity.ok(this.orderDetailService.findDetailById(orderId,
+				userId -> authUtil.canActivate(request, userId, userDetails)));
+	}
+
 	@PostMapping
 	public ResponseEntity<OrderDto> save(
 			@RequestBody @NotNull(message = "Input must not be NULL!") @Valid final OrderDto orderDto,
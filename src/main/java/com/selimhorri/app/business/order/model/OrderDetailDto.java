@@ -0,0 +1,51 @@
+package com.selimhorri.app.business.order.model;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.selimhorri.app.business.orderItem.model.OrderItemDto;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderDetailDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@JsonUnwrapped
+	private OrderDto orderDto;
+	
+	@JsonProperty("orderItems")
+	@JsonInclude(Include.NON_NULL)
+	private Collection<OrderItemDto> orderItemDtos;
+	
+	@JsonProperty("payment")
+	@JsonInclude(Include.NON_NULL)
+	private PaymentDto paymentDto;
+	
+	@JsonInclude(Include.NON_NULL)
+	private Set<String> unavailableSections;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -17,12 +17,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import com.selimhorri.app.business.order.model.OrderDto;
 import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
 
+import feign.Response;
+
 @FeignClient(name = "ORDER-SERVICE", contextId = "orderClientService", path = "/order-service/api/orders")
 public interface OrderClientService {
 	
 	@GetMapping
 	public ResponseEntity<OrderOrderServiceDtoCollectionResponse> findAll();
 	
+	@GetMapping
+	public Response findAllRaw();
+	
 	@GetMapping("/{orderId}")
 	public ResponseEntity<OrderDto> findById(
 			@PathVariable("orderId") 
@@ -0,0 +1,11 @@
+package com.selimhorri.app.business.order.service;
+
+import java.util.function.Consumer;
+
+import com.selimhorri.app.business.order.model.OrderDetailDto;
+
+public interface OrderDetailService {
+	
+	OrderDetailDto findDetailById(final String orderId, final Consumer<String> ownerGuard);
+	
+}
@@ -0,0 +1,138 @@
+package com.selimhorri.app.business.order.service.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.business.aggregation.util.FanOut;
+import com.selimhorri.app.business.aggregation.util.FanOutUtil;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDetailDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.service.CartClientService;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.order.service.OrderDetailService;
+import com.selimhorri.app.business.orderItem.model.OrderItemDto;
+import com.selimhorri.app.business.orderItem.model.ProductDto;
+import com.selimhorri.app.business.orderItem.model.response.OrderItemOrderItemServiceDtoCollectionResponse;
+import com.selimhorri.app.business.orderItem.service.OrderItemClientService;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.business.product.service.ProductCacheService;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class OrderDetailServiceImpl implements OrderDetailService {
+	
+	private final FanOutUtil fanOutUtil;
+	private final OrderClientService orderClientService;
+	private final CartClientService cartClientService;
+	private final OrderItemClientService orderItemClientService;
+	private final PaymentClientService paymentClientService;
+	private final ProductCacheService productCacheService;
+	
+	@Override
+	public OrderDetailDto findDetailById(final String orderId, final Consumer<String> ownerGuard) {
+		
+		final OrderDto orderDto = this.orderClientService.findById(orderId).getBody();
+		if (orderDto == null)
+			throw new IllegalStateException("Order with id: " + orderId + " not found");
+		ownerGuard.accept(this.resolveOwner(orderDto));
+		
+		// items and payment only come as system wide listings, they are not fetched before the guard has passed
+		final FanOut fanOut = this.fanOutUtil.begin();
+		final var orderItems = fanOut.fork("orderItems", () -> this.orderItemClientService.findAll().getBody());
+		final var payments = fanOut.fork("payment", () -> this.paymentClientService.findAll().getBody());
+		
+		final var orderItemDtos = this.filterOrderItems(fanOut.join(orderItems), orderDto.getOrderId());
+		if (orderItemDtos != null)
+			this.hydrateProducts(orderItemDtos);
+		
+		return OrderDetailDto.builder()
+				.orderDto(orderDto)
+				.orderItemDtos(orderItemDtos)
+				.paymentDto(this.findPayment(fanOut.join(payments), orderDto.getOrderId()))
+				.unavailableSections(fanOut.getUnavailable())
+				.build();
+	}
+	
+	private String resolveOwner(final OrderDto orderDto) {
+		final CartDto cartDto = orderDto.getCartDto();
+		if (cartDto != null && cartDto.getUserId() != null)
+			return cartDto.getUserId().toString();
+		if (cartDto != null && cartDto.getCartId() != null) {
+			final CartDto ownerCartDto = this.cartClientService.findById(cartDto.getCartId().toString()).getBody();
+			if (ownerCartDto != null && ownerCartDto.getUserDto() != null)
+				return ownerCartDto.getUserDto().getUserId().toString();
+		}
+		// unresolved owner, only admins are allowed through
+		return "";
+	}
+	
+	private List<OrderItemDto> filterOrderItems(final OrderItemOrderItemServiceDtoCollectionResponse response,
+			final Integer orderId) {
+		if (response == null || response.getCollection() == null)
+			return response == null ? null : Collections.emptyList();
+		return response.getCollection().stream()
+				.filter(orderItemDto -> orderId.equals(orderItemDto.getOrderId()))
+				.collect(Collectors.toList());
+	}
+	
+	private void hydrateProducts(final List<OrderItemDto> orderItemDtos) {
+		
+		// all products of the order are resolved together, misses cost at most one upstream call
+		final Map<Integer, com.selimhorri.app.business.product.model.ProductDto> productDtos = this.productCacheService
+				.findAllByIds(orderItemDtos.stream()
+						.map(OrderItemDto::getProductId)
+						.filter(Objects::nonNull)
+						.collect(Collectors.toSet()));
+		
+		orderItemDtos.forEach(orderItemDto -> {
+			final var productDto = productDtos.get(orderItemDto.getProductId());
+			if (productDto != null)
+				orderItemDto.setProductDto(toOrderItemProduct(productDto));
+		});
+	}
+	
+	private PaymentDto findPayment(final PaymentPaymentServiceDtoCollectionResponse response, final Integer orderId) {
+		if (response == null || response.getCollection() == null)
+			return null;
+		return response.getCollection().stream()
+				.filter(paymentDto -> paymentDto.getOrderDto() != null
+						&& orderId.equals(paymentDto.getOrderDto().getOrderId()))
+				.findFirst()
+				.orElse(null);
+	}
+	
+	private static ProductDto toOrderItemProduct(final com.selimhorri.app.business.product.model.ProductDto productDto) {
+		return ProductDto.builder()
+				.productId(productDto.getProductId())
+				.productTitle(productDto.getProductTitle())
+				.imageUrl(productDto.getImageUrl())
+				.sku(productDto.getSku())
+				.priceUnit(productDto.getPriceUnit())
+				.quantity(productDto.getQuantity())
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
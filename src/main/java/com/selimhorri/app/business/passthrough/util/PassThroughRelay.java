@@ -0,0 +1,130 @@
+package com.selimhorri.app.business.passthrough.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.config.compression.GzipStreams;
+import com.selimhorri.app.config.passthrough.PassThroughProperties;
+import com.selimhorri.app.config.wireformat.WireFormat;
+
+import feign.Response;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Relays an upstream response as is, status, entity headers and body bytes, for routes where the
+ * proxy doesn't look at the body. Nothing is decoded, so no DTO is allocated on these routes.
+ */
+@Component
+@RequiredArgsConstructor
+public class PassThroughRelay {
+	
+	public static final String PRODUCTS = "products";
+	public static final String CATEGORIES = "categories";
+	public static final String ORDERS = "orders";
+	
+	private static final int BUFFER_SIZE = 16 * 1024;
+	private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+	// virtual threads are not pooled, buffers returned past this many are left to the GC
+	private static final int MAX_SHARED_BUFFERS = 64;
+	private static final Queue<byte[]> SHARED_BUFFERS = new ArrayBlockingQueue<>(MAX_SHARED_BUFFERS);
+	
+	// entity headers only, hop by hop ones belong to the upstream connection
+	private static final Set<String> RELAYED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+	static {
+		RELAYED_HEADERS.addAll(Set.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_ENCODING,
+				HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CACHE_CONTROL, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED,
+				HttpHeaders.EXPIRES, HttpHeaders.VARY));
+	}
+	
+	// describe the bytes as sent, dropped when the relay inflates them
+	private static final Set<String> ENCODED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+	static {
+		ENCODED_HEADERS.addAll(Set.of(HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LENGTH));
+	}
+	
+	private final PassThroughProperties passThroughProperties;
+	
+	/**
+	 * Upstream bytes are JSON, so clients asking for a binary wire format go through the DTO path.
+	 */
+	public boolean isEnabled(final String route, final HttpServletRequest request) {
+		return this.passThroughProperties.getRoutes().contains(route)
+				&& !WireFormat.isRequested(request.getHeader(HttpHeaders.ACCEPT));
+	}
+	
+	/**
+	 * Gzipped upstream bytes are forwarded compressed to clients accepting gzip, and inflated on the
+	 * way out for the others.
+	 */
+	public void relay(final Response upstream, final HttpServletRequest request, final HttpServletResponse response)
+			throws IOException {
+		try (upstream) {
+			final boolean gzipped = GzipStreams.isGzip(upstream.headers().get(HttpHeaders.CONTENT_ENCODING));
+			final boolean inflate = gzipped && !GzipStreams.accepts(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+			response.setStatus(upstream.status());
+			for (final Map.Entry<String, Collection<String>> header : upstream.headers().entrySet())
+				if (RELAYED_HEADERS.contains(header.getKey()) && !(inflate && ENCODED_HEADERS.contains(header.getKey())))
+					for (final String value : header.getValue())
+						response.addHeader(header.getKey(), value);
+			if (gzipped)
+				response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			if (upstream.body() != null)
+				copy(inflate ? GzipStreams.decoding(upstream.body().asInputStream()) : upstream.body().asInputStream(),
+						response.getOutputStream());
+		}
+	}
+	
+	/**
+	 * Copies through a buffer owned by the calling thread, so steady state relaying allocates nothing.
+	 * Virtual threads live for one request, they borrow from a shared pool instead.
+	 */
+	public static long copy(final InputStream in, final OutputStream out) throws IOException {
+		if (!Thread.currentThread().isVirtual())
+			return copy(in, out, BUFFERS.get());
+		final byte[] borrowed = SHARED_BUFFERS.poll();
+		final byte[] buffer = borrowed != null ? borrowed : new byte[BUFFER_SIZE];
+		try {
+			return copy(in, out, buffer);
+		}
+		finally {
+			SHARED_BUFFERS.offer(buffer);
+		}
+	}
+	
+	private static long copy(final InputStream in, final OutputStream out, final byte[] buffer) throws IOException {
+		long copied = 0L;
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+			copied += read;
+		}
+		return copied;
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
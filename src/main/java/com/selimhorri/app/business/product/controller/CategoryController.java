@@ -1,5 +1,11 @@
 package com.selimhorri.app.business.product.controller;
 
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,9 +16,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.business.passthrough.util.PassThroughRelay;
 import com.selimhorri.app.business.product.model.CategoryDto;
 import com.selimhorri.app.business.product.model.response.CategoryProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
 import com.selimhorri.app.business.product.service.CategoryClientService;
+import com.selimhorri.app.business.product.service.CategoryIndexService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,9 +31,16 @@ import lombok.RequiredArgsConstructor;
 public class CategoryController {
 	
 	private final CategoryClientService categoryClientService;
+	private final CategoryIndexService categoryIndexService;
+	private final PassThroughRelay passThroughRelay;
 	
 	@GetMapping
-	public ResponseEntity<CategoryProductServiceCollectionDtoResponse> findAll() {
+	public ResponseEntity<CategoryProductServiceCollectionDtoResponse> findAll(final HttpServletRequest request,
+			final HttpServletResponse response) throws IOException {
+		if (this.passThroughRelay.isEnabled(PassThroughRelay.CATEGORIES, request)) {
+			this.passThroughRelay.relay(this.categoryClientService.findAllRaw(), request, response);
+			return null;
+		}
 		return ResponseEntity.ok(this.categoryClientService.findAll().getBody());
 	}
 	
@@ -33,6 +49,17 @@ public class CategoryController {
 		return ResponseEntity.ok(this.categoryClientService.findById(categoryId).getBody());
 	}
 	
+	@GetMapping("/{categoryId}/products")
+	public ResponseEntity<ProductProductServiceCollectionDtoResponse> findAllProducts(
+			@PathVariable("categoryId") final String categoryId) {
+		return ResponseEntity.ok(this.categoryIndexService.findAllProductsUnder(categoryId));
+	}
+	
+	@GetMapping("/{categoryId}/breadcrumb")
+	public ResponseEntity<List<CategoryDto>> findBreadcrumb(@PathVariable("categoryId") final String categoryId) {
+		return ResponseEntity.ok(this.categoryIndexService.findBreadcrumb(categoryId));
+	}
+	
 	@PostMapping
 	public ResponseEntity<CategoryDto> save(@RequestBody final CategoryDto categoryDto) {
 		return ResponseEntity.ok(this.categoryClientService.save(categoryDto).getBody());
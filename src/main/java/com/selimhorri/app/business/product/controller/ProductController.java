@@ -1,5 +1,11 @@
 package com.selimhorri.app.business.product.controller;
 
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,11 +14,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.business.passthrough.util.PassThroughRelay;
 import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.SuggestionDto;
 import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.service.ProductCatalogPayloadService;
 import com.selimhorri.app.business.product.service.ProductClientService;
+import com.selimhorri.app.business.product.service.ProductSearchService;
+import com.selimhorri.app.business.product.service.ProductSuggestionService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,14 +34,45 @@ import lombok.RequiredArgsConstructor;
 public class ProductController {
 	
 	private final ProductClientService productClientService;
+	private final ProductSearchService productSearchService;
+	private final ProductSuggestionService productSuggestionService;
+	private final PassThroughRelay passThroughRelay;
+	private final ProductCatalogPayloadService productCatalogPayloadService;
 	
 	@GetMapping
-	public ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll() {
+	public ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll(final HttpServletRequest request,
+			final HttpServletResponse response) throws IOException {
+		if (this.productCatalogPayloadService.isEnabled(request)) {
+			this.productCatalogPayloadService.getPayload().writeTo(request, response);
+			return null;
+		}
+		if (this.passThroughRelay.isEnabled(PassThroughRelay.PRODUCTS, request)) {
+			this.passThroughRelay.relay(this.productClientService.findAllRaw(), request, response);
+			return null;
+		}
 		return ResponseEntity.ok(this.productClientService.findAll().getBody());
 	}
 	
+	@GetMapping("/search")
+	public ResponseEntity<ProductProductServiceCollectionDtoResponse> search(
+			@RequestParam("q") final String query,
+			@RequestParam(name = "minPrice", required = false) final Double minPrice,
+			@RequestParam(name = "maxPrice", required = false) final Double maxPrice,
+			@RequestParam(name = "inStock", defaultValue = "false") final boolean inStockOnly,
+			@RequestParam(name = "limit", defaultValue = "20") final int limit) {
+		return ResponseEntity.ok(this.productSearchService.search(query, minPrice, maxPrice, inStockOnly, limit));
+	}
+	
+	@GetMapping("/suggest")
+	public ResponseEntity<List<SuggestionDto>> suggest(
+			@RequestParam("prefix") final String prefix,
+			@RequestParam(name = "limit", defaultValue = "10") final int limit) {
+		return ResponseEntity.ok(this.productSuggestionService.suggest(prefix, limit));
+	}
+	
 	@GetMapping("/{productId}")
 	public ResponseEntity<ProductDto> findById(@PathVariable("productId") final String productId) {
+		this.productSuggestionService.recordView(productId);
 		return ResponseEntity.ok(this.productClientService.findById(productId).getBody());
 	}
 	
@@ -0,0 +1,29 @@
+package com.selimhorri.app.business.product.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+import com.selimhorri.app.business.product.model.ProductDto;
+
+import lombok.Value;
+
+/**
+ * Published by the product cache after a reload, carrying only what differs from the previous load.
+ */
+@Value
+public class ProductCatalogChangedEvent {
+	
+	Collection<ProductDto> upserted;
+	Set<Integer> removed;
+	
+}
+
+
+
+
+
+
+
+
+
+
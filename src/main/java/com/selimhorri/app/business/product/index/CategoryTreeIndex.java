@@ -0,0 +1,302 @@
+package com.selimhorri.app.business.product.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+
+/**
+ * Immutable, array based snapshot of the category tree.
+ * <p>
+ * Categories are numbered in DFS pre-order so the subtree of a category is the contiguous
+ * interval [enter, exit] of that order, product ids are laid out in the same order which
+ * makes "all products under X" a single array range.
+ */
+public final class CategoryTreeIndex {
+	
+	public static final CategoryTreeIndex EMPTY = CategoryTreeIndex.of(Collections.emptyList());
+	private static final int NO_PARENT = -1;
+	
+	private final Map<Integer, Integer> nodes;
+	private final int[] categoryIds;
+	private final int[] declaredParents;
+	private final int[] parents;
+	private final int[] enter;
+	private final int[] exit;
+	private final long[] fingerprints;
+	private final String[] titles;
+	private final String[] imageUrls;
+	private final int[] productOffsets;
+	private final int[] productIds;
+	
+	private CategoryTreeIndex(final Map<Integer, Integer> nodes, final int[] categoryIds,
+			final int[] declaredParents, final int[] parents, final int[] enter, final int[] exit, final long[] fingerprints, final String[] titles,
+			final String[] imageUrls, final int[] productOffsets, final int[] productIds) {
+		this.nodes = nodes;
+		this.categoryIds = categoryIds;
+		this.declaredParents = declaredParents;
+		this.parents = parents;
+		this.enter = enter;
+		this.exit = exit;
+		this.fingerprints = fingerprints;
+		this.titles = titles;
+		this.imageUrls = imageUrls;
+		this.productOffsets = productOffsets;
+		this.productIds = productIds;
+	}
+	
+	public static CategoryTreeIndex of(final Collection<CategoryDto> categoryDtos) {
+		
+		final List<Row> rows = rowsOf(categoryDtos);
+		final int size = rows.size();
+		final Map<Integer, Integer> nodes = new HashMap<>(size * 2);
+		final int[] categoryIds = new int[size];
+		for (int node = 0; node < size; node++) {
+			categoryIds[node] = rows.get(node).categoryId;
+			nodes.put(categoryIds[node], node);
+		}
+		
+		final int[] declaredParents = new int[size];
+		final int[] childCounts = new int[size + 1];
+		for (int node = 0; node < size; node++) {
+			declaredParents[node] = parentOf(nodes, node, rows.get(node).parentId);
+			if (declaredParents[node] != NO_PARENT)
+				childCounts[declaredParents[node] + 1]++;
+		}
+		final int[] parents = Arrays.copyOf(declaredParents, size);
+		
+		// children as CSR, ascending ids since nodes are numbered by id
+		for (int node = 0; node < size; node++)
+			childCounts[node + 1] += childCounts[node];
+		final int[] children = new int[childCounts[size]];
+		final int[] cursor = Arrays.copyOf(childCounts, size);
+		for (int node = 0; node < size; node++)
+			if (parents[node] != NO_PARENT)
+				children[cursor[parents[node]]++] = node;
+		
+		final int[] enter = new int[size];
+		final int[] exit = new int[size];
+		final int[] preOrder = new int[size];
+		final boolean[] visited = new boolean[size];
+		final int[] stack = new int[size];
+		final int[] next = new int[size];
+		final int[] walked = new int[size];
+		int position = 0;
+		for (int pass = 0; pass < 2; pass++) {
+			for (int start = 0; start < size; start++) {
+				if (visited[start] || (pass == 0 && parents[start] != NO_PARENT))
+					continue;
+				// left for the second pass only on or below a parent cycle: walk up until a node
+				// repeats, that node is on the cycle and becomes the root breaking it
+				int root = start;
+				if (pass == 1)
+					for (; walked[root] != start + 1; root = parents[root])
+						walked[root] = start + 1;
+				parents[root] = NO_PARENT;
+				int depth = 0;
+				stack[depth] = root;
+				next[root] = childCounts[root];
+				visited[root] = true;
+				enter[root] = position;
+				preOrder[position++] = root;
+				while (depth >= 0) {
+					final int node = stack[depth];
+					if (next[node] < childCounts[node + 1]) {
+						final int child = children[next[node]++];
+						if (visited[child])
+							continue;
+						visited[child] = true;
+						enter[child] = position;
+						preOrder[position++] = child;
+						next[child] = childCounts[child];
+						stack[++depth] = child;
+					}
+					else {
+						exit[node] = position - 1;
+						depth--;
+					}
+				}
+			}
+		}
+		
+		final long[] fingerprints = new long[size];
+		for (int node = 0; node < size; node++)
+			fingerprints[node] = rows.get(node).fingerprint();
+		
+		final CategoryTreeIndex structure = new CategoryTreeIndex(nodes, categoryIds, declaredParents, parents,
+				enter, exit, fingerprints, null, null, null, null);
+		return structure.withContent(rows, preOrder);
+	}
+	
+	/**
+	 * Returns an index reflecting the given categories, reusing this one as far as possible:
+	 * the same instance when nothing changed, the same tree arrays when only titles, images
+	 * or products changed, and a full rebuild only when the shape of the tree changed.
+	 */
+	public CategoryTreeIndex refresh(final Collection<CategoryDto> categoryDtos) {
+		
+		final List<Row> rows = rowsOf(categoryDtos);
+		if (rows.size() != this.categoryIds.length)
+			return of(categoryDtos);
+		
+		boolean changed = false;
+		for (int node = 0; node < rows.size(); node++) {
+			final Row row = rows.get(node);
+			if (row.categoryId != this.categoryIds[node]
+					|| parentOf(this.nodes, node, row.parentId) != this.declaredParents[node])
+				return of(categoryDtos);
+			// the fingerprint only rules out equality, a match is confirmed field by field
+			if (!changed)
+				changed = row.fingerprint() != this.fingerprints[node] || !this.hasContent(node, row);
+		}
+		if (!changed)
+			return this;
+		
+		final long[] fingerprints = new long[rows.size()];
+		final int[] preOrder = new int[rows.size()];
+		for (int node = 0; node < rows.size(); node++) {
+			fingerprints[node] = rows.get(node).fingerprint();
+			preOrder[this.enter[node]] = node;
+		}
+		return new CategoryTreeIndex(this.nodes, this.categoryIds, this.declaredParents, this.parents,
+				this.enter, this.exit, fingerprints, null, null, null, null).withContent(rows, preOrder);
+	}
+	
+	private CategoryTreeIndex withContent(final List<Row> rows, final int[] preOrder) {
+		final int size = rows.size();
+		final String[] titles = new String[size];
+		final String[] imageUrls = new String[size];
+		final int[] productOffsets = new int[size + 1];
+		int total = 0;
+		for (int node = 0; node < size; node++) {
+			titles[node] = rows.get(node).title;
+			imageUrls[node] = rows.get(node).imageUrl;
+			total += rows.get(node).productIds.length;
+		}
+		final int[] productIds = new int[total];
+		for (int position = 0; position < size; position++) {
+			final int[] ids = rows.get(preOrder[position]).productIds;
+			System.arraycopy(ids, 0, productIds, productOffsets[position], ids.length);
+			productOffsets[position + 1] = productOffsets[position] + ids.length;
+		}
+		return new CategoryTreeIndex(this.nodes, this.categoryIds, this.declaredParents, this.parents,
+				this.enter, this.exit, this.fingerprints, titles, imageUrls, productOffsets, productIds);
+	}
+	
+	private boolean hasContent(final int node, final Row row) {
+		final int position = this.enter[node];
+		return Objects.equals(row.title, this.titles[node]) && Objects.equals(row.imageUrl, this.imageUrls[node])
+				&& Arrays.equals(row.productIds, 0, row.productIds.length,
+						this.productIds, this.productOffsets[position], this.productOffsets[position + 1]);
+	}
+	
+	private static int parentOf(final Map<Integer, Integer> nodes, final int node, final Integer parentId) {
+		final Integer parent = parentId == null ? null : nodes.get(parentId);
+		return parent == null || parent == node ? NO_PARENT : parent;
+	}
+	
+	public int size() {
+		return this.categoryIds.length;
+	}
+	
+	public boolean contains(final int categoryId) {
+		return this.nodes.containsKey(categoryId);
+	}
+	
+	/**
+	 * Ids of the products of the category and all of its descendants, null for an unknown category.
+	 */
+	public int[] findProductIdsUnder(final int categoryId) {
+		final Integer node = this.nodes.get(categoryId);
+		if (node == null)
+			return null;
+		return Arrays.copyOfRange(this.productIds, this.productOffsets[this.enter[node]],
+				this.productOffsets[this.exit[node] + 1]);
+	}
+	
+	public boolean isDescendant(final int categoryId, final int ancestorId) {
+		final Integer node = this.nodes.get(categoryId);
+		final Integer ancestor = this.nodes.get(ancestorId);
+		return node != null && ancestor != null
+				&& this.enter[ancestor] <= this.enter[node] && this.enter[node] <= this.exit[ancestor];
+	}
+	
+	/**
+	 * Path from the root down to the category, both included, empty for an unknown category.
+	 */
+	public List<CategoryDto> findBreadcrumb(final int categoryId) {
+		final Integer node = this.nodes.get(categoryId);
+		if (node == null)
+			return Collections.emptyList();
+		final List<CategoryDto> breadcrumb = new ArrayList<>();
+		for (int current = node; current != NO_PARENT; current = this.parents[current])
+			breadcrumb.add(CategoryDto.builder()
+					.categoryId(this.categoryIds[current])
+					.categoryTitle(this.titles[current])
+					.imageUrl(this.imageUrls[current])
+					.build());
+		Collections.reverse(breadcrumb);
+		return breadcrumb;
+	}
+	
+	private static List<Row> rowsOf(final Collection<CategoryDto> categoryDtos) {
+		// sorted by id so node numbers, and therefore the arrays, are stable across refreshes
+		final Map<Integer, Row> rows = new TreeMap<>();
+		categoryDtos.stream()
+				.filter(categoryDto -> categoryDto.getCategoryId() != null)
+				.forEach(categoryDto -> rows.put(categoryDto.getCategoryId(), new Row(categoryDto)));
+		return new ArrayList<>(rows.values());
+	}
+	
+	private static final class Row {
+		
+		private final int categoryId;
+		private final Integer parentId;
+		private final String title;
+		private final String imageUrl;
+		private final int[] productIds;
+		
+		private Row(final CategoryDto categoryDto) {
+			this.categoryId = categoryDto.getCategoryId();
+			this.parentId = categoryDto.getParentCategoryDto() == null ? null
+					: categoryDto.getParentCategoryDto().getCategoryId();
+			this.title = categoryDto.getCategoryTitle();
+			this.imageUrl = categoryDto.getImageUrl();
+			this.productIds = categoryDto.getProductDtos() == null ? new int[0]
+					: categoryDto.getProductDtos().stream()
+							.map(ProductDto::getProductId)
+							.filter(Objects::nonNull)
+							.mapToInt(Integer::intValue)
+							.sorted()
+							.distinct()
+							.toArray();
+		}
+		
+		private long fingerprint() {
+			return 31L * Objects.hash(this.categoryId, this.parentId, this.title, this.imageUrl)
+					+ Arrays.hashCode(this.productIds);
+		}
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
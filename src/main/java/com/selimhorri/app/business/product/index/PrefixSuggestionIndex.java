@@ -0,0 +1,213 @@
+package com.selimhorri.app.business.product.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Immutable prefix structure for autocomplete.
+ * <p>
+ * All keys live sorted in one char array, the keys sharing a prefix are therefore one contiguous
+ * range found by two binary searches. A segment tree over the scores returns the best entry of any
+ * range in logarithmic time, top-k is taken by repeatedly splitting ranges around their best entry.
+ * There is no per-node object, the whole index is a handful of primitive arrays.
+ */
+public final class PrefixSuggestionIndex {
+	
+	public static final PrefixSuggestionIndex EMPTY = builder().build();
+	
+	private final char[] keys;
+	private final int[] keyOffsets;
+	private final int[] productIds;
+	private final long[] scores;
+	private final int[] tree;
+	private final int leaves;
+	
+	private PrefixSuggestionIndex(final char[] keys, final int[] keyOffsets, final int[] productIds, final long[] scores) {
+		this.keys = keys;
+		this.keyOffsets = keyOffsets;
+		this.productIds = productIds;
+		this.scores = scores;
+		this.leaves = productIds.length;
+		this.tree = new int[Math.max(1, 2 * this.leaves)];
+		for (int i = 0; i < this.leaves; i++)
+			this.tree[this.leaves + i] = i;
+		for (int node = this.leaves - 1; node > 0; node--)
+			this.tree[node] = this.best(this.tree[2 * node], this.tree[2 * node + 1]);
+	}
+	
+	public static Builder builder() {
+		return new Builder();
+	}
+	
+	public int size() {
+		return this.leaves;
+	}
+	
+	public long estimateBytes() {
+		return 2L * this.keys.length + 4L * this.keyOffsets.length + 4L * this.productIds.length
+				+ 8L * this.scores.length + 4L * this.tree.length;
+	}
+	
+	/**
+	 * Distinct product ids whose keys start with the prefix, best scores first.
+	 */
+	public List<Integer> suggest(final String prefix, final int limit) {
+		final String normalized = ProductSearchIndex.normalize(prefix).trim();
+		if (normalized.isEmpty() || this.leaves == 0)
+			return List.of();
+		
+		final int from = this.bound(normalized, false);
+		final int to = this.bound(normalized, true);
+		final List<Integer> suggestions = new ArrayList<>(limit);
+		final Set<Integer> seen = new HashSet<>();
+		final PriorityQueue<int[]> ranges = new PriorityQueue<>((first, second) -> this.compare(second[2], first[2]));
+		if (from < to)
+			ranges.add(new int[] { from, to, this.query(from, to) });
+		while (!ranges.isEmpty() && suggestions.size() < limit) {
+			final int[] range = ranges.poll();
+			final int best = range[2];
+			if (seen.add(this.productIds[best]))
+				suggestions.add(this.productIds[best]);
+			if (range[0] < best)
+				ranges.add(new int[] { range[0], best, this.query(range[0], best) });
+			if (best + 1 < range[1])
+				ranges.add(new int[] { best + 1, range[1], this.query(best + 1, range[1]) });
+		}
+		return suggestions;
+	}
+	
+	/**
+	 * First key comparing greater or equal to the prefix, or strictly greater once truncated to
+	 * the prefix length when upper is set.
+	 */
+	private int bound(final String prefix, final boolean upper) {
+		int low = 0;
+		int high = this.leaves;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			final int comparison = this.comparePrefix(middle, prefix);
+			if (comparison < 0 || (upper && comparison == 0))
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+	
+	private int comparePrefix(final int entry, final String prefix) {
+		final int start = this.keyOffsets[entry];
+		final int length = Math.min(this.keyOffsets[entry + 1] - start, prefix.length());
+		for (int i = 0; i < length; i++) {
+			final int difference = this.keys[start + i] - prefix.charAt(i);
+			if (difference != 0)
+				return difference;
+		}
+		return this.keyOffsets[entry + 1] - start < prefix.length() ? -1 : 0;
+	}
+	
+	private int query(int from, int to) {
+		int best = from;
+		for (from += this.leaves, to += this.leaves; from < to; from >>= 1, to >>= 1) {
+			if ((from & 1) == 1)
+				best = this.best(best, this.tree[from++]);
+			if ((to & 1) == 1)
+				best = this.best(best, this.tree[--to]);
+		}
+		return best;
+	}
+	
+	private int best(final int first, final int second) {
+		return this.compare(first, second) >= 0 ? first : second;
+	}
+	
+	/**
+	 * Higher score wins, ties go to the shorter key then to the earlier entry.
+	 */
+	private int compare(final int first, final int second) {
+		if (this.scores[first] != this.scores[second])
+			return Long.compare(this.scores[first], this.scores[second]);
+		final int firstLength = this.keyOffsets[first + 1] - this.keyOffsets[first];
+		final int secondLength = this.keyOffsets[second + 1] - this.keyOffsets[second];
+		if (firstLength != secondLength)
+			return Integer.compare(secondLength, firstLength);
+		return Integer.compare(second, first);
+	}
+	
+	public static final class Builder {
+		
+		private static final int MAX_WORD_STARTS = 4;
+		
+		private final List<Entry> entries = new ArrayList<>();
+		
+		private Builder() {
+		}
+		
+		/**
+		 * Registers the title from each of its first words, so "lenovo thinkpad" is also found
+		 * by "think", and the sku as typed.
+		 */
+		public Builder add(final int productId, final String title, final String sku, final long score) {
+			final List<String> words = ProductSearchIndex.tokenize(title);
+			for (int i = 0; i < Math.min(words.size(), MAX_WORD_STARTS); i++)
+				this.entries.add(new Entry(String.join(" ", words.subList(i, words.size())), productId, score));
+			if (sku != null && !sku.isBlank())
+				this.entries.add(new Entry(ProductSearchIndex.normalize(sku).trim(), productId, score));
+			return this;
+		}
+		
+		public PrefixSuggestionIndex build() {
+			this.entries.sort(Comparator.comparing((Entry entry) -> entry.key).thenComparingInt(entry -> entry.productId));
+			final List<Entry> distinct = new ArrayList<>(this.entries.size());
+			for (final Entry entry : this.entries) {
+				final Entry last = distinct.isEmpty() ? null : distinct.get(distinct.size() - 1);
+				if (last == null || !last.key.equals(entry.key) || last.productId != entry.productId)
+					distinct.add(entry);
+			}
+			
+			final int[] keyOffsets = new int[distinct.size() + 1];
+			final int[] productIds = new int[distinct.size()];
+			final long[] scores = new long[distinct.size()];
+			for (int i = 0; i < distinct.size(); i++) {
+				keyOffsets[i + 1] = keyOffsets[i] + distinct.get(i).key.length();
+				productIds[i] = distinct.get(i).productId;
+				scores[i] = distinct.get(i).score;
+			}
+			final char[] keys = new char[keyOffsets[distinct.size()]];
+			for (int i = 0; i < distinct.size(); i++)
+				distinct.get(i).key.getChars(0, distinct.get(i).key.length(), keys, keyOffsets[i]);
+			return new PrefixSuggestionIndex(keys, keyOffsets, productIds, scores);
+		}
+		
+	}
+	
+	private static final class Entry {
+		
+		private final String key;
+		private final int productId;
+		private final long score;
+		
+		private Entry(final String key, final int productId, final long score) {
+			this.key = key;
+			this.productId = productId;
+			this.score = score;
+		}
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
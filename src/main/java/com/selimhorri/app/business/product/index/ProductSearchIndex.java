@@ -0,0 +1,261 @@
+package com.selimhorri.app.business.product.index;
+
+import java.text.Normalizer;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.selimhorri.app.business.product.model.ProductDto;
+
+/**
+ * Inverted index over product title, sku and category title.
+ * <p>
+ * Terms are kept sorted for prefix matching, and every term is also registered under each of its
+ * single character deletions so that terms within one edit of a query token are found with a
+ * handful of hash lookups. Updates are applied in place by a single writer, readers never block.
+ */
+public class ProductSearchIndex {
+	
+	private static final int EXACT = 3;
+	private static final int PREFIX = 2;
+	private static final int FUZZY = 1;
+	private static final int MIN_FUZZY_LENGTH = 4;
+	public static final int DEFAULT_MAX_PREFIX_EXPANSION = 64;
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	
+	private final ConcurrentSkipListMap<String, Set<Integer>> postings = new ConcurrentSkipListMap<>();
+	private final Map<String, Set<String>> deletions = new ConcurrentHashMap<>();
+	private final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+	private final int maxPrefixExpansion;
+	
+	public ProductSearchIndex() {
+		this(DEFAULT_MAX_PREFIX_EXPANSION);
+	}
+	
+	/**
+	 * A token expands to at most the given number of longer terms, the ones shared by the most products.
+	 */
+	public ProductSearchIndex(final int maxPrefixExpansion) {
+		this.maxPrefixExpansion = maxPrefixExpansion;
+	}
+	
+	public int size() {
+		return this.documents.size();
+	}
+	
+	public synchronized void apply(final Collection<ProductDto> upserted, final Collection<Integer> removed) {
+		removed.forEach(this::remove);
+		upserted.stream()
+				.filter(productDto -> productDto.getProductId() != null)
+				.forEach(productDto -> {
+					this.remove(productDto.getProductId());
+					this.add(productDto);
+				});
+	}
+	
+	private void add(final ProductDto productDto) {
+		final Set<String> terms = new HashSet<>(tokenize(productDto.getProductTitle()));
+		terms.addAll(tokenize(productDto.getSku()));
+		if (productDto.getSku() != null && !productDto.getSku().isBlank())
+			terms.add(normalize(productDto.getSku()).trim());
+		if (productDto.getCategoryDto() != null)
+			terms.addAll(tokenize(productDto.getCategoryDto().getCategoryTitle()));
+		
+		final Document document = new Document(productDto.getProductId(), productDto.getPriceUnit(),
+				productDto.getQuantity(), terms);
+		this.documents.put(document.productId, document);
+		terms.forEach(term -> {
+			this.postings.computeIfAbsent(term, key -> {
+				deletionsOf(key).forEach(deletion -> this.deletions
+						.computeIfAbsent(deletion, variant -> ConcurrentHashMap.newKeySet()).add(key));
+				return ConcurrentHashMap.newKeySet();
+			}).add(document.productId);
+		});
+	}
+	
+	private void remove(final Integer productId) {
+		final Document document = this.documents.remove(productId);
+		if (document == null)
+			return;
+		document.terms.forEach(term -> {
+			final Set<Integer> productIds = this.postings.get(term);
+			if (productIds == null)
+				return;
+			productIds.remove(productId);
+			if (productIds.isEmpty()) {
+				this.postings.remove(term);
+				deletionsOf(term).forEach(deletion -> {
+					final Set<String> variants = this.deletions.get(deletion);
+					if (variants != null) {
+						variants.remove(term);
+						if (variants.isEmpty())
+							this.deletions.remove(deletion);
+					}
+				});
+			}
+		});
+	}
+	
+	/**
+	 * Every query token must match a term of the product, exactly, as a prefix or within one edit;
+	 * results are ordered by how closely they matched and then by product id.
+	 */
+	public List<Integer> search(final String query, final Double minPrice, final Double maxPrice,
+			final boolean inStockOnly, final int limit) {
+		
+		final List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+		if (tokens.isEmpty())
+			return List.of();
+		
+		Map<Integer, Integer> scores = null;
+		for (final String token : tokens) {
+			final Map<Integer, Integer> tokenScores = this.match(token);
+			if (scores == null)
+				scores = tokenScores;
+			else {
+				final Map<Integer, Integer> previous = scores;
+				tokenScores.keySet().retainAll(previous.keySet());
+				tokenScores.replaceAll((productId, score) -> score + previous.get(productId));
+				scores = tokenScores;
+			}
+			if (scores.isEmpty())
+				return List.of();
+		}
+		
+		final Map<Integer, Integer> ranked = scores;
+		return ranked.keySet().stream()
+				.map(this.documents::get)
+				.filter(document -> document != null && document.accepts(minPrice, maxPrice, inStockOnly))
+				.map(document -> document.productId)
+				.sorted(Comparator.comparing((Integer productId) -> -ranked.get(productId))
+						.thenComparing(Comparator.naturalOrder()))
+				.limit(limit)
+				.collect(Collectors.toList());
+	}
+	
+	private Map<Integer, Integer> match(final String token) {
+		final Map<Integer, Integer> scores = new HashMap<>();
+		
+		this.postings.getOrDefault(token, Set.of()).forEach(productId -> scores.merge(productId, EXACT, Math::max));
+		
+		// a short prefix can match far more terms than are worth scoring, the widest ones are kept
+		// rather than the first in alphabetical order; sizes are read once as the single writer may move them
+		final PriorityQueue<SimpleImmutableEntry<Integer, Set<Integer>>> widest = new PriorityQueue<>(
+				this.maxPrefixExpansion + 1, Comparator.comparingInt(SimpleImmutableEntry::getKey));
+		for (final Set<Integer> productIds : this.postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+			widest.add(new SimpleImmutableEntry<>(productIds.size(), productIds));
+			if (widest.size() > this.maxPrefixExpansion)
+				widest.poll();
+		}
+		widest.forEach(entry -> entry.getValue().forEach(productId -> scores.merge(productId, PREFIX, Math::max)));
+		
+		if (token.length() >= MIN_FUZZY_LENGTH) {
+			final Set<String> candidates = new HashSet<>(this.deletions.getOrDefault(token, Set.of()));
+			deletionsOf(token).forEach(deletion -> {
+				candidates.addAll(this.deletions.getOrDefault(deletion, Set.of()));
+				if (this.postings.containsKey(deletion))
+					candidates.add(deletion);
+			});
+			candidates.stream()
+					.filter(term -> isWithinOneEdit(token, term))
+					.forEach(term -> this.postings.getOrDefault(term, Set.of())
+							.forEach(productId -> scores.merge(productId, FUZZY, Math::max)));
+		}
+		return scores;
+	}
+	
+	static List<String> tokenize(final String text) {
+		if (text == null || text.isBlank())
+			return List.of();
+		final List<String> tokens = new ArrayList<>();
+		for (final String token : SEPARATORS.split(normalize(text)))
+			if (!token.isEmpty())
+				tokens.add(token);
+		return tokens;
+	}
+	
+	static String normalize(final String text) {
+		return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+	}
+	
+	private static List<String> deletionsOf(final String term) {
+		if (term.length() < MIN_FUZZY_LENGTH - 1)
+			return List.of();
+		final List<String> deletions = new ArrayList<>(term.length());
+		for (int i = 0; i < term.length(); i++)
+			deletions.add(term.substring(0, i) + term.substring(i + 1));
+		return deletions;
+	}
+	
+	/**
+	 * Damerau distance of at most one, a swap of two adjacent characters counts as one edit.
+	 */
+	static boolean isWithinOneEdit(final String first, final String second) {
+		final int lengthDifference = first.length() - second.length();
+		if (Math.abs(lengthDifference) > 1)
+			return false;
+		int i = 0;
+		while (i < Math.min(first.length(), second.length()) && first.charAt(i) == second.charAt(i))
+			i++;
+		if (lengthDifference > 0)
+			return first.regionMatches(i + 1, second, i, second.length() - i);
+		if (lengthDifference < 0)
+			return second.regionMatches(i + 1, first, i, first.length() - i);
+		if (i == first.length())
+			return true;
+		if (first.regionMatches(i + 1, second, i + 1, first.length() - i - 1))
+			return true;
+		return i + 1 < first.length() && first.charAt(i) == second.charAt(i + 1) && first.charAt(i + 1) == second.charAt(i)
+				&& first.regionMatches(i + 2, second, i + 2, first.length() - i - 2);
+	}
+	
+	private static final class Document {
+		
+		private final int productId;
+		private final Double price;
+		private final Integer quantity;
+		private final Set<String> terms;
+		
+		private Document(final int productId, final Double price, final Integer quantity, final Set<String> terms) {
+			this.productId = productId;
+			this.price = price;
+			this.quantity = quantity;
+			this.terms = terms;
+		}
+		
+		private boolean accepts(final Double minPrice, final Double maxPrice, final boolean inStockOnly) {
+			if (minPrice != null && (this.price == null || this.price < minPrice))
+				return false;
+			if (maxPrice != null && (this.price == null || this.price > maxPrice))
+				return false;
+			return !inStockOnly || (this.quantity != null && this.quantity > 0);
+		}
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,352 @@
+package com.selimhorri.app.business.product.index;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.ProductView;
+
+/**
+ * Read only, columnar snapshot of the product catalog held in a single buffer, by default off heap.
+ * <p>
+ * Rows are sorted by product id, so lookups are a binary search over the id column. Numbers are
+ * stored unboxed with sentinels for null, strings are dictionary encoded as UTF-8 and shared between
+ * rows, a product costs about fifty bytes plus its distinct strings instead of a DTO object graph.
+ * <pre>
+ * header   magic, version, rows, strings, string bytes
+ * columns  id, price, quantity, category id, title, image, sku, category title, category image
+ * strings  offsets[strings + 1], UTF-8 bytes
+ * </pre>
+ */
+public final class ProductSnapshot {
+	
+	public static final int MAGIC = 0x50534e31;
+	public static final int VERSION = 1;
+	public static final ProductSnapshot EMPTY = ProductSnapshot.of(List.of(), false);
+	
+	private static final int HEADER_BYTES = 24;
+	private static final int NULL_INT = Integer.MIN_VALUE;
+	private static final int NULL_STRING = -1;
+	private static final int STRING_COLUMNS = 5;
+	
+	private final ByteBuffer buffer;
+	private final int rows;
+	private final int strings;
+	private final int ids;
+	private final int prices;
+	private final int quantities;
+	private final int categoryIds;
+	private final int stringCodes;
+	private final int stringOffsets;
+	private final int stringBytes;
+	
+	private ProductSnapshot(final ByteBuffer buffer) {
+		this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (this.buffer.getInt(0) != MAGIC || this.buffer.getInt(4) != VERSION)
+			throw new IllegalStateException("Not a product snapshot of version " + VERSION);
+		this.rows = this.buffer.getInt(8);
+		this.strings = this.buffer.getInt(12);
+		this.ids = HEADER_BYTES;
+		this.prices = align(this.ids + 4 * this.rows);
+		this.quantities = this.prices + 8 * this.rows;
+		this.categoryIds = align(this.quantities + 4 * this.rows);
+		this.stringCodes = align(this.categoryIds + 4 * this.rows);
+		this.stringOffsets = align(this.stringCodes + 4 * STRING_COLUMNS * this.rows);
+		this.stringBytes = this.stringOffsets + 4 * (this.strings + 1);
+		if (this.buffer.capacity() < this.stringBytes + this.buffer.getInt(16))
+			throw new IllegalStateException("Truncated product snapshot");
+	}
+	
+	/**
+	 * Wraps an existing snapshot buffer, e.g. one mapped from disk, without copying it.
+	 */
+	public static ProductSnapshot wrap(final ByteBuffer buffer) {
+		return new ProductSnapshot(buffer);
+	}
+	
+	public static ProductSnapshot of(final Collection<ProductDto> productDtos, final boolean offHeap) {
+		
+		final Map<Integer, ProductDto> sorted = new TreeMap<>();
+		productDtos.stream()
+				.filter(productDto -> productDto.getProductId() != null)
+				.forEach(productDto -> sorted.put(productDto.getProductId(), productDto));
+		final List<ProductDto> rows = new ArrayList<>(sorted.values());
+		
+		final Map<String, Integer> codes = new HashMap<>();
+		final List<byte[]> dictionary = new ArrayList<>();
+		final int[][] columns = new int[STRING_COLUMNS][rows.size()];
+		int dictionaryBytes = 0;
+		for (int row = 0; row < rows.size(); row++) {
+			final ProductDto productDto = rows.get(row);
+			final CategoryDto categoryDto = productDto.getCategoryDto();
+			final String[] values = { productDto.getProductTitle(), productDto.getImageUrl(), productDto.getSku(),
+					categoryDto == null ? null : categoryDto.getCategoryTitle(),
+					categoryDto == null ? null : categoryDto.getImageUrl() };
+			for (int column = 0; column < STRING_COLUMNS; column++) {
+				if (values[column] == null) {
+					columns[column][row] = NULL_STRING;
+					continue;
+				}
+				Integer code = codes.get(values[column]);
+				if (code == null) {
+					code = dictionary.size();
+					codes.put(values[column], code);
+					final byte[] bytes = values[column].getBytes(StandardCharsets.UTF_8);
+					dictionary.add(bytes);
+					dictionaryBytes += bytes.length;
+				}
+				columns[column][row] = code;
+			}
+		}
+		
+		final int size = rows.size();
+		final int stringOffsets = align(align(align(align(HEADER_BYTES + 4 * size) + 8 * size + 4 * size) + 4 * size)
+				+ 4 * STRING_COLUMNS * size);
+		final int capacity = stringOffsets + 4 * (dictionary.size() + 1) + dictionaryBytes;
+		final ByteBuffer buffer = (offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity))
+				.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, size).putInt(12, dictionary.size()).putInt(16, dictionaryBytes);
+		
+		final ProductSnapshot snapshot = new ProductSnapshot(buffer);
+		for (int row = 0; row < size; row++) {
+			final ProductDto productDto = rows.get(row);
+			buffer.putInt(snapshot.ids + 4 * row, productDto.getProductId());
+			buffer.putDouble(snapshot.prices + 8 * row,
+					productDto.getPriceUnit() == null ? Double.NaN : productDto.getPriceUnit());
+			buffer.putInt(snapshot.quantities + 4 * row,
+					productDto.getQuantity() == null ? NULL_INT : productDto.getQuantity());
+			buffer.putInt(snapshot.categoryIds + 4 * row, productDto.getCategoryDto() == null
+					|| productDto.getCategoryDto().getCategoryId() == null ? NULL_INT
+							: productDto.getCategoryDto().getCategoryId());
+			for (int column = 0; column < STRING_COLUMNS; column++)
+				buffer.putInt(snapshot.stringCodes + 4 * (column * size + row), columns[column][row]);
+		}
+		int offset = 0;
+		for (int code = 0; code < dictionary.size(); code++) {
+			buffer.putInt(snapshot.stringOffsets + 4 * code, offset);
+			final byte[] bytes = dictionary.get(code);
+			for (int i = 0; i < bytes.length; i++)
+				buffer.put(snapshot.stringBytes + offset + i, bytes[i]);
+			offset += bytes.length;
+		}
+		buffer.putInt(snapshot.stringOffsets + 4 * dictionary.size(), offset);
+		return snapshot;
+	}
+	
+	private static int align(final int offset) {
+		return (offset + 7) & ~7;
+	}
+	
+	public int size() {
+		return this.rows;
+	}
+	
+	public long sizeInBytes() {
+		return this.buffer.capacity();
+	}
+	
+	public boolean isOffHeap() {
+		return this.buffer.isDirect();
+	}
+	
+	/**
+	 * Read only view over the whole snapshot, suitable for writing it out as is.
+	 */
+	public ByteBuffer asReadOnlyBuffer() {
+		return this.buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	/**
+	 * Row holding the product, or -1.
+	 */
+	public int find(final int productId) {
+		int low = 0;
+		int high = this.rows - 1;
+		while (low <= high) {
+			final int middle = (low + high) >>> 1;
+			final int id = this.productIdAt(middle);
+			if (id < productId)
+				low = middle + 1;
+			else if (id > productId)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+	
+	public int productIdAt(final int row) {
+		return this.buffer.getInt(this.ids + 4 * row);
+	}
+	
+	public Cursor cursor() {
+		return new Cursor();
+	}
+	
+	public void forEach(final Consumer<ProductView> action) {
+		final Cursor cursor = this.cursor();
+		for (int row = 0; row < this.rows; row++)
+			action.accept(cursor.moveTo(row));
+	}
+	
+	public ProductDto toDto(final int row) {
+		final Cursor cursor = this.cursor().moveTo(row);
+		final Integer categoryId = cursor.getCategoryId();
+		final String categoryTitle = cursor.getCategoryTitle();
+		final String categoryImageUrl = cursor.getCategoryImageUrl();
+		return ProductDto.builder()
+				.productId(cursor.getProductId())
+				.productTitle(cursor.getProductTitle())
+				.imageUrl(cursor.getImageUrl())
+				.sku(cursor.getSku())
+				.priceUnit(cursor.getPriceUnit())
+				.quantity(cursor.getQuantity())
+				.categoryDto(categoryId == null && categoryTitle == null && categoryImageUrl == null ? null
+						: CategoryDto.builder()
+								.categoryId(categoryId)
+								.categoryTitle(categoryTitle)
+								.imageUrl(categoryImageUrl)
+								.build())
+				.build();
+	}
+	
+	/**
+	 * Whether the row holds the same values as the given row of another snapshot, strings are
+	 * compared on their encoded bytes so nothing is decoded.
+	 */
+	public boolean sameRow(final int row, final ProductSnapshot other, final int otherRow) {
+		if (this.productIdAt(row) != other.productIdAt(otherRow)
+				|| Double.doubleToLongBits(this.buffer.getDouble(this.prices + 8 * row))
+						!= Double.doubleToLongBits(other.buffer.getDouble(other.prices + 8 * otherRow))
+				|| this.buffer.getInt(this.quantities + 4 * row) != other.buffer.getInt(other.quantities + 4 * otherRow)
+				|| this.buffer.getInt(this.categoryIds + 4 * row) != other.buffer.getInt(other.categoryIds + 4 * otherRow))
+			return false;
+		for (int column = 0; column < STRING_COLUMNS; column++)
+			if (!this.sameString(this.codeAt(column, row), other, other.codeAt(column, otherRow)))
+				return false;
+		return true;
+	}
+	
+	private boolean sameString(final int code, final ProductSnapshot other, final int otherCode) {
+		if (code == NULL_STRING || otherCode == NULL_STRING)
+			return code == otherCode;
+		final int start = this.stringBytes + this.buffer.getInt(this.stringOffsets + 4 * code);
+		final int length = this.buffer.getInt(this.stringOffsets + 4 * (code + 1)) - this.buffer.getInt(this.stringOffsets + 4 * code);
+		final int otherStart = other.stringBytes + other.buffer.getInt(other.stringOffsets + 4 * otherCode);
+		final int otherLength = other.buffer.getInt(other.stringOffsets + 4 * (otherCode + 1))
+				- other.buffer.getInt(other.stringOffsets + 4 * otherCode);
+		if (length != otherLength)
+			return false;
+		for (int i = 0; i < length; i++)
+			if (this.buffer.get(start + i) != other.buffer.get(otherStart + i))
+				return false;
+		return true;
+	}
+	
+	private int codeAt(final int column, final int row) {
+		return this.buffer.getInt(this.stringCodes + 4 * (column * this.rows + row));
+	}
+	
+	private String stringAt(final int column, final int row) {
+		final int code = this.codeAt(column, row);
+		if (code == NULL_STRING)
+			return null;
+		final int start = this.buffer.getInt(this.stringOffsets + 4 * code);
+		final byte[] bytes = new byte[this.buffer.getInt(this.stringOffsets + 4 * (code + 1)) - start];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = this.buffer.get(this.stringBytes + start + i);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Flyweight over one row at a time, move it instead of creating one view per product.
+	 * Not thread safe, each reader takes its own cursor.
+	 */
+	public final class Cursor implements ProductView {
+		
+		private int row;
+		
+		private Cursor() {
+		}
+		
+		public Cursor moveTo(final int row) {
+			Objects.checkIndex(row, ProductSnapshot.this.rows);
+			this.row = row;
+			return this;
+		}
+		
+		@Override
+		public Integer getProductId() {
+			return ProductSnapshot.this.productIdAt(this.row);
+		}
+		
+		public int getProductIdAsInt() {
+			return ProductSnapshot.this.productIdAt(this.row);
+		}
+		
+		@Override
+		public Double getPriceUnit() {
+			final double price = ProductSnapshot.this.buffer.getDouble(ProductSnapshot.this.prices + 8 * this.row);
+			return Double.isNaN(price) ? null : price;
+		}
+		
+		@Override
+		public Integer getQuantity() {
+			final int quantity = ProductSnapshot.this.buffer.getInt(ProductSnapshot.this.quantities + 4 * this.row);
+			return quantity == NULL_INT ? null : quantity;
+		}
+		
+		public Integer getCategoryId() {
+			final int categoryId = ProductSnapshot.this.buffer.getInt(ProductSnapshot.this.categoryIds + 4 * this.row);
+			return categoryId == NULL_INT ? null : categoryId;
+		}
+		
+		@Override
+		public String getProductTitle() {
+			return ProductSnapshot.this.stringAt(0, this.row);
+		}
+		
+		@Override
+		public String getImageUrl() {
+			return ProductSnapshot.this.stringAt(1, this.row);
+		}
+		
+		@Override
+		public String getSku() {
+			return ProductSnapshot.this.stringAt(2, this.row);
+		}
+		
+		public String getCategoryTitle() {
+			return ProductSnapshot.this.stringAt(3, this.row);
+		}
+		
+		public String getCategoryImageUrl() {
+			return ProductSnapshot.this.stringAt(4, this.row);
+		}
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
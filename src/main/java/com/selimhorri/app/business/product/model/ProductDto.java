@@ -15,7 +15,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Data
 @Builder
-public class ProductDto implements Serializable {
+public class ProductDto implements Serializable, ProductView {
 	
 	private static final long serialVersionUID = 1L;
 	private Integer productId;
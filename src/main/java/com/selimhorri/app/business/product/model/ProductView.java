@@ -0,0 +1,15 @@
+package com.selimhorri.app.business.product.model;
+
+/**
+ * Read side of a product, implemented by the DTO and by the flyweight over the catalog snapshot.
+ */
+public interface ProductView {
+	
+	Integer getProductId();
+	String getProductTitle();
+	String getImageUrl();
+	String getSku();
+	Double getPriceUnit();
+	Integer getQuantity();
+	
+}
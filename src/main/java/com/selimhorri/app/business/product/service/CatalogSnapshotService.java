@@ -0,0 +1,17 @@
+package com.selimhorri.app.business.product.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.selimhorri.app.business.product.index.ProductSnapshot;
+import com.selimhorri.app.business.product.model.CategoryDto;
+
+public interface CatalogSnapshotService {
+	
+	Optional<ProductSnapshot> loadProducts();
+	void saveProducts(final ProductSnapshot snapshot);
+	Optional<List<CategoryDto>> loadCategories();
+	void saveCategories(final Collection<CategoryDto> categoryDtos);
+	
+}
@@ -16,12 +16,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import com.selimhorri.app.business.product.model.CategoryDto;
 import com.selimhorri.app.business.product.model.response.CategoryProductServiceCollectionDtoResponse;
 
+import feign.Response;
+
 @FeignClient(name = "PRODUCT-SERVICE", contextId = "categoryClientService", path = "/product-service/api/categories")
 public interface CategoryClientService {
 	
 	@GetMapping
 	ResponseEntity<CategoryProductServiceCollectionDtoResponse> findAll();
 	
+	@GetMapping
+	Response findAllRaw();
+	
 	@GetMapping("/{categoryId}")
 	ResponseEntity<CategoryDto> findById(
 			@PathVariable("categoryId") 
@@ -0,0 +1,14 @@
+package com.selimhorri.app.business.product.service;
+
+import java.util.List;
+
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+
+public interface CategoryIndexService {
+	
+	ProductProductServiceCollectionDtoResponse findAllProductsUnder(final String categoryId);
+	List<CategoryDto> findBreadcrumb(final String categoryId);
+	void refresh();
+	
+}
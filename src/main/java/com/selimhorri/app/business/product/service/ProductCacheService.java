@@ -0,0 +1,16 @@
+package com.selimhorri.app.business.product.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.selimhorri.app.business.product.index.ProductSnapshot;
+import com.selimhorri.app.business.product.model.ProductDto;
+
+public interface ProductCacheService {
+	
+	ProductSnapshot getSnapshot();
+	Map<Integer, ProductDto> findAllByIds(final Collection<Integer> productIds);
+	void ensureFresh();
+	void refresh();
+	
+}
@@ -0,0 +1,12 @@
+package com.selimhorri.app.business.product.service;
+
+import javax.servlet.http.HttpServletRequest;
+
+import com.selimhorri.app.config.compression.EncodedPayload;
+
+public interface ProductCatalogPayloadService {
+	
+	boolean isEnabled(final HttpServletRequest request);
+	EncodedPayload getPayload();
+	
+}
@@ -16,12 +16,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import com.selimhorri.app.business.product.model.ProductDto;
 import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
 
+import feign.Response;
+
 @FeignClient(name = "PRODUCT-SERVICE", contextId = "productClientService", path = "/product-service/api/products")
 public interface ProductClientService {
 	
 	@GetMapping
 	ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll();
 	
+	@GetMapping
+	Response findAllRaw();
+	
 	@GetMapping("/{productId}")
 	ResponseEntity<ProductDto> findById(
 			@PathVariable("productId") 
@@ -0,0 +1,10 @@
+package com.selimhorri.app.business.product.service;
+
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+
+public interface ProductSearchService {
+	
+	ProductProductServiceCollectionDtoResponse search(final String query, final Double minPrice,
+			final Double maxPrice, final boolean inStockOnly, final int limit);
+	
+}
@@ -0,0 +1,13 @@
+package com.selimhorri.app.business.product.service;
+
+import java.util.List;
+
+import com.selimhorri.app.business.product.model.SuggestionDto;
+
+public interface ProductSuggestionService {
+	
+	List<SuggestionDto> suggest(final String prefix, final int limit);
+	void recordView(final String productId);
+	void rebuild();
+	
+}
@@ -0,0 +1,173 @@
+package com.selimhorri.app.business.product.service.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.product.index.ProductSnapshot;
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.service.CatalogSnapshotService;
+import com.selimhorri.app.config.cache.CatalogCacheProperties;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the last known catalog on local disk so a restarted instance can serve it right away.
+ * The product snapshot is written as is and mapped back, categories are few and kept as JSON.
+ * File names carry the format version, files of another version are simply not found.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService {
+	
+	private static final String PRODUCTS_FILE = "products-v" + ProductSnapshot.VERSION + ".snapshot";
+	private static final String CATEGORIES_FILE = "categories-v1.json";
+	
+	private final CatalogCacheProperties catalogCacheProperties;
+	private final ObjectMapper objectMapper;
+	
+	@Override
+	public Optional<ProductSnapshot> loadProducts() {
+		final Path file = this.findUsable(PRODUCTS_FILE);
+		if (file == null)
+			return Optional.empty();
+		try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			// the mapping outlives the channel, and the file it was mapped from once replaced
+			return Optional.of(ProductSnapshot.wrap(channel.map(MapMode.READ_ONLY, 0L, channel.size())));
+		}
+		catch (IOException | RuntimeException e) {
+			log.warn("Ignoring product snapshot {}: {}", file, e.getMessage());
+			return Optional.empty();
+		}
+	}
+	
+	@Override
+	public void saveProducts(final ProductSnapshot snapshot) {
+		this.write(PRODUCTS_FILE, channel -> {
+			final ByteBuffer buffer = snapshot.asReadOnlyBuffer();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		});
+	}
+	
+	@Override
+	public Optional<List<CategoryDto>> loadCategories() {
+		final Path file = this.findUsable(CATEGORIES_FILE);
+		if (file == null)
+			return Optional.empty();
+		try {
+			return Optional.of(this.objectMapper.readValue(file.toFile(), new TypeReference<List<CategoryDto>>() {}));
+		}
+		catch (IOException | RuntimeException e) {
+			log.warn("Ignoring category snapshot {}: {}", file, e.getMessage());
+			return Optional.empty();
+		}
+	}
+	
+	@Override
+	public void saveCategories(final Collection<CategoryDto> categoryDtos) {
+		// only what the category index reads, parents and products by id
+		final List<CategoryDto> trimmed = categoryDtos.stream()
+				.map(categoryDto -> CategoryDto.builder()
+						.categoryId(categoryDto.getCategoryId())
+						.categoryTitle(categoryDto.getCategoryTitle())
+						.imageUrl(categoryDto.getImageUrl())
+						.parentCategoryDto(categoryDto.getParentCategoryDto() == null ? null
+								: CategoryDto.builder().categoryId(categoryDto.getParentCategoryDto().getCategoryId()).build())
+						.productDtos(categoryDto.getProductDtos() == null ? null : categoryDto.getProductDtos().stream()
+								.map(productDto -> ProductDto.builder().productId(productDto.getProductId()).build())
+								.collect(Collectors.toSet()))
+						.build())
+				.collect(Collectors.toList());
+		this.write(CATEGORIES_FILE, channel -> {
+			final ByteBuffer buffer = ByteBuffer.wrap(this.objectMapper.writeValueAsBytes(trimmed));
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		});
+	}
+	
+	private Path findUsable(final String name) {
+		if (this.catalogCacheProperties.getSnapshotDirectory() == null)
+			return null;
+		final Path file = Paths.get(this.catalogCacheProperties.getSnapshotDirectory(), name);
+		try {
+			if (!Files.isRegularFile(file))
+				return null;
+			final Instant modified = Files.getLastModifiedTime(file).toInstant();
+			if (modified.plus(this.catalogCacheProperties.getSnapshotMaxAge()).isBefore(Instant.now())) {
+				log.info("Ignoring catalog snapshot {} last written at {}", file, modified);
+				return null;
+			}
+			return file;
+		}
+		catch (IOException e) {
+			log.warn("Cannot read catalog snapshot {}: {}", file, e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * Writes next to the target and renames over it, readers never see a partial file.
+	 */
+	private void write(final String name, final ChannelWriter writer) {
+		if (this.catalogCacheProperties.getSnapshotDirectory() == null)
+			return;
+		final Path directory = Paths.get(this.catalogCacheProperties.getSnapshotDirectory());
+		Path temporary = null;
+		try {
+			Files.createDirectories(directory);
+			temporary = Files.createTempFile(directory, name, ".tmp");
+			try (final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				writer.write(channel);
+				channel.force(false);
+			}
+			Files.move(temporary, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException | RuntimeException e) {
+			log.warn("Cannot write catalog snapshot {}: {}", name, e.getMessage());
+			try {
+				if (temporary != null)
+					Files.deleteIfExists(temporary);
+			}
+			catch (IOException ignored) {
+				// left for the next write to replace
+			}
+		}
+	}
+	
+	@FunctionalInterface
+	private interface ChannelWriter {
+		void write(final FileChannel channel) throws IOException;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,134 @@
+package com.selimhorri.app.business.product.service.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.business.product.index.CategoryTreeIndex;
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.response.CategoryProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.service.CatalogSnapshotService;
+import com.selimhorri.app.business.product.service.CategoryClientService;
+import com.selimhorri.app.business.product.service.CategoryIndexService;
+import com.selimhorri.app.business.product.service.ProductCacheService;
+import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CategoryIndexServiceImpl implements CategoryIndexService {
+	
+	private final CategoryClientService categoryClientService;
+	private final ProductCacheService productCacheService;
+	private final CatalogSnapshotService catalogSnapshotService;
+	
+	private volatile CategoryTreeIndex index;
+	private volatile boolean restoreAttempted;
+	
+	@Override
+	public ProductProductServiceCollectionDtoResponse findAllProductsUnder(final String categoryId) {
+		final int[] productIds = this.getIndex().findProductIdsUnder(parseId(categoryId));
+		if (productIds == null)
+			throw new CategoryNotFoundException("Category with id: " + categoryId + " not found");
+		final Map<Integer, ProductDto> productDtos = this.productCacheService.findAllByIds(Arrays.stream(productIds)
+				.boxed()
+				.collect(Collectors.toSet()));
+		return new ProductProductServiceCollectionDtoResponse(Arrays.stream(productIds)
+				.distinct()
+				.mapToObj(productDtos::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList()));
+	}
+	
+	@Override
+	public List<CategoryDto> findBreadcrumb(final String categoryId) {
+		final List<CategoryDto> breadcrumb = this.getIndex().findBreadcrumb(parseId(categoryId));
+		if (breadcrumb.isEmpty())
+			throw new CategoryNotFoundException("Category with id: " + categoryId + " not found");
+		return breadcrumb;
+	}
+	
+	@Override
+	@Scheduled(fixedDelayString = "${app.catalog.category-refresh-interval:PT1M}")
+	public void refresh() {
+		this.restore();
+		try {
+			final CategoryProductServiceCollectionDtoResponse response = this.categoryClientService.findAll().getBody();
+			if (response == null || response.getCollection() == null)
+				return;
+			final CategoryTreeIndex current = this.index;
+			final CategoryTreeIndex refreshed = current == null ? CategoryTreeIndex.of(response.getCollection())
+					: current.refresh(response.getCollection());
+			if (refreshed != current) {
+				this.index = refreshed;
+				log.debug("Category index refreshed with {} categories", refreshed.size());
+				this.catalogSnapshotService.saveCategories(response.getCollection());
+			}
+		}
+		catch (RuntimeException e) {
+			// keep serving the previous snapshot
+			log.warn("Category index refresh failed: {}", e.getMessage());
+		}
+	}
+	
+	/**
+	 * Starts from the categories a previous run left on disk, the next refresh reconciles them.
+	 */
+	private void restore() {
+		if (this.restoreAttempted)
+			return;
+		synchronized (this) {
+			if (this.restoreAttempted)
+				return;
+			this.restoreAttempted = true;
+			if (this.index == null)
+				this.catalogSnapshotService.loadCategories().ifPresent(categoryDtos -> {
+					this.index = CategoryTreeIndex.of(categoryDtos);
+					log.info("Category index restored with {} categories from disk", this.index.size());
+				});
+		}
+	}
+	
+	private CategoryTreeIndex getIndex() {
+		this.restore();
+		if (this.index == null) {
+			synchronized (this) {
+				if (this.index == null)
+					this.refresh();
+			}
+		}
+		return this.index == null ? CategoryTreeIndex.EMPTY : this.index;
+	}
+	
+	private static int parseId(final String categoryId) {
+		try {
+			return Integer.parseInt(categoryId);
+		}
+		catch (NumberFormatException e) {
+			throw new CategoryNotFoundException("Category with id: " + categoryId + " not found");
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,202 @@
+package com.selimhorri.app.business.product.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.business.product.event.ProductCatalogChangedEvent;
+import com.selimhorri.app.business.product.index.ProductSnapshot;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.service.CatalogSnapshotService;
+import com.selimhorri.app.business.product.service.ProductCacheService;
+import com.selimhorri.app.business.product.service.ProductClientService;
+import com.selimhorri.app.config.cache.CatalogCacheProperties;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductCacheServiceImpl implements ProductCacheService {
+	
+	private final ProductClientService productClientService;
+	private final CatalogCacheProperties catalogCacheProperties;
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private final CatalogSnapshotService catalogSnapshotService;
+	
+	private volatile ProductSnapshot snapshot = ProductSnapshot.EMPTY;
+	private final ReentrantLock reloadLock = new ReentrantLock();
+	private volatile long generation;
+	private volatile long loadedAt;
+	private volatile long attemptedAt;
+	private volatile boolean restoreAttempted;
+	
+	@Override
+	public ProductSnapshot getSnapshot() {
+		this.restore();
+		return this.snapshot;
+	}
+	
+	@Override
+	public Map<Integer, ProductDto> findAllByIds(final Collection<Integer> productIds) {
+		
+		this.restore();
+		if (this.isStale() || productIds.stream().anyMatch(productId -> productId != null && this.snapshot.find(productId) < 0))
+			this.reload(true);
+		
+		// DTOs are materialized per lookup, only the snapshot is retained
+		final ProductSnapshot current = this.snapshot;
+		final Map<Integer, ProductDto> found = new HashMap<>(productIds.size() * 2);
+		productIds.stream()
+				.filter(Objects::nonNull)
+				.forEach(productId -> {
+					final int row = current.find(productId);
+					if (row >= 0)
+						found.put(productId, current.toDto(row));
+				});
+		return found;
+	}
+	
+	@Override
+	public void ensureFresh() {
+		this.restore();
+		if (this.isStale())
+			this.reload(true);
+	}
+	
+	@Override
+	@Scheduled(fixedDelayString = "${app.catalog.product-refresh-interval:PT1M}")
+	public void refresh() {
+		this.restore();
+		this.reload(false);
+	}
+	
+	private boolean isStale() {
+		return this.generation == 0L
+				|| System.nanoTime() - this.loadedAt > this.catalogCacheProperties.getProductTtl().toNanos();
+	}
+	
+	/**
+	 * Serves the snapshot a previous run left on disk until the first reload reconciles it with
+	 * upstream, which the scheduled refresh does right after startup.
+	 */
+	private void restore() {
+		if (this.restoreAttempted)
+			return;
+		this.reloadLock.lock();
+		try {
+			if (this.restoreAttempted)
+				return;
+			this.restoreAttempted = true;
+			if (this.generation != 0L)
+				return;
+			this.catalogSnapshotService.loadProducts().ifPresent(restored -> {
+				this.snapshot = restored;
+				this.loadedAt = System.nanoTime();
+				this.generation++;
+				log.info("Product cache restored with {} products from disk", restored.size());
+				final List<ProductDto> upserted = new ArrayList<>(restored.size());
+				for (int row = 0; row < restored.size(); row++)
+					upserted.add(restored.toDto(row));
+				this.applicationEventPublisher.publishEvent(new ProductCatalogChangedEvent(upserted, Set.of()));
+			});
+		}
+		finally {
+			this.reloadLock.unlock();
+		}
+	}
+	
+	/**
+	 * Single flight reload of the whole catalog with one upstream call, concurrent callers
+	 * wait for the reload in progress instead of issuing their own.
+	 */
+	private void reload(final boolean onMiss) {
+		final long observed = this.generation;
+		this.reloadLock.lock();
+		try {
+			// another thread reloaded while we were waiting
+			if (this.generation != observed)
+				return;
+			// ids which don't exist upstream, or an unavailable upstream, must not trigger a reload per request
+			if (onMiss && this.attemptedAt != 0L && System.nanoTime() - this.attemptedAt
+					< this.catalogCacheProperties.getMinReloadInterval().toNanos())
+				return;
+			this.attemptedAt = System.nanoTime();
+			
+			final ProductProductServiceCollectionDtoResponse response = this.productClientService.findAll().getBody();
+			if (response == null || response.getCollection() == null)
+				return;
+			
+			final ProductSnapshot previous = this.snapshot;
+			final ProductSnapshot fresh = ProductSnapshot.of(response.getCollection(),
+					this.catalogCacheProperties.isSnapshotOffHeap());
+			
+			// both snapshots are sorted by id, one merge pass finds what changed
+			final List<ProductDto> upserted = new ArrayList<>();
+			final Set<Integer> removed = new HashSet<>();
+			int row = 0;
+			int previousRow = 0;
+			while (row < fresh.size() && previousRow < previous.size()) {
+				final int id = fresh.productIdAt(row);
+				final int previousId = previous.productIdAt(previousRow);
+				if (id < previousId)
+					upserted.add(fresh.toDto(row++));
+				else if (id > previousId)
+					removed.add(previous.productIdAt(previousRow++));
+				else {
+					if (!fresh.sameRow(row, previous, previousRow))
+						upserted.add(fresh.toDto(row));
+					row++;
+					previousRow++;
+				}
+			}
+			while (row < fresh.size())
+				upserted.add(fresh.toDto(row++));
+			while (previousRow < previous.size())
+				removed.add(previous.productIdAt(previousRow++));
+			
+			this.snapshot = fresh;
+			this.loadedAt = System.nanoTime();
+			this.generation++;
+			log.debug("Product cache reloaded with {} products in {} bytes, {} changed, {} removed",
+					fresh.size(), fresh.sizeInBytes(), upserted.size(), removed.size());
+			// listeners run here, under the reload lock, so they see changes one reload at a time
+			if (!upserted.isEmpty() || !removed.isEmpty()) {
+				this.applicationEventPublisher.publishEvent(new ProductCatalogChangedEvent(upserted, removed));
+				this.catalogSnapshotService.saveProducts(fresh);
+			}
+		}
+		catch (RuntimeException e) {
+			// keep serving what we have, the next lookup will try again
+			log.warn("Product cache reload failed: {}", e.getMessage());
+		}
+		finally {
+			this.reloadLock.unlock();
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,102 @@
+package com.selimhorri.app.business.product.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.product.event.ProductCatalogChangedEvent;
+import com.selimhorri.app.business.product.index.ProductSnapshot;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.service.ProductCacheService;
+import com.selimhorri.app.business.product.service.ProductCatalogPayloadService;
+import com.selimhorri.app.config.cache.CatalogCacheProperties;
+import com.selimhorri.app.config.compression.EncodedPayload;
+import com.selimhorri.app.config.wireformat.WireFormat;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The product list as served by GET /api/products, encoded and gzipped once per catalog change
+ * instead of serialized and compressed per request.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductCatalogPayloadServiceImpl implements ProductCatalogPayloadService {
+	
+	private final ProductCacheService productCacheService;
+	private final CatalogCacheProperties catalogCacheProperties;
+	private final ObjectMapper objectMapper;
+	
+	private final AtomicBoolean dirty = new AtomicBoolean(true);
+	private volatile EncodedPayload payload;
+	
+	@Override
+	public boolean isEnabled(final HttpServletRequest request) {
+		// the stored form is JSON, binary wire formats are encoded per request
+		return this.catalogCacheProperties.isPrecompressedProducts()
+				&& !WireFormat.isRequested(request.getHeader(HttpHeaders.ACCEPT));
+	}
+	
+	@Override
+	public EncodedPayload getPayload() {
+		this.productCacheService.ensureFresh();
+		final EncodedPayload current = this.payload;
+		if (current != null && !this.dirty.get())
+			return current;
+		synchronized (this) {
+			// cleared before encoding so a change arriving meanwhile is encoded by the next request,
+			// a request seeing it cleared before the first payload is assigned waits here for it
+			if (this.dirty.compareAndSet(true, false) || this.payload == null)
+				this.payload = this.encode(this.productCacheService.getSnapshot());
+			return this.payload;
+		}
+	}
+	
+	@EventListener
+	public void onCatalogChanged(final ProductCatalogChangedEvent event) {
+		this.dirty.set(true);
+	}
+	
+	private EncodedPayload encode(final ProductSnapshot snapshot) {
+		final List<ProductDto> productDtos = new ArrayList<>(snapshot.size());
+		for (int row = 0; row < snapshot.size(); row++)
+			productDtos.add(snapshot.toDto(row));
+		try {
+			final EncodedPayload encoded = EncodedPayload.of(MediaType.APPLICATION_JSON_VALUE,
+					this.objectMapper.writeValueAsBytes(new ProductProductServiceCollectionDtoResponse(productDtos)));
+			log.debug("Product list encoded with {} products, {} bytes, {} gzipped",
+					snapshot.size(), encoded.getIdentity().length, encoded.getGzip().length);
+			return encoded;
+		}
+		catch (JsonProcessingException e) {
+			this.dirty.set(true);
+			throw new IllegalStateException("Product list could not be encoded", e);
+		}
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
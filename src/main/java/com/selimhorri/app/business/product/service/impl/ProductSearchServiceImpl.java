@@ -0,0 +1,65 @@
+package com.selimhorri.app.business.product.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.business.product.event.ProductCatalogChangedEvent;
+import com.selimhorri.app.business.product.index.ProductSearchIndex;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.service.ProductCacheService;
+import com.selimhorri.app.business.product.service.ProductSearchService;
+import com.selimhorri.app.config.cache.CatalogCacheProperties;
+
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService {
+	
+	private static final int MAX_LIMIT = 100;
+	
+	private final ProductCacheService productCacheService;
+	private final ProductSearchIndex productSearchIndex;
+	
+	public ProductSearchServiceImpl(final ProductCacheService productCacheService,
+			final CatalogCacheProperties catalogCacheProperties) {
+		this.productCacheService = productCacheService;
+		this.productSearchIndex = new ProductSearchIndex(catalogCacheProperties.getMaxPrefixExpansion());
+	}
+	
+	@EventListener
+	public void onCatalogChanged(final ProductCatalogChangedEvent event) {
+		this.productSearchIndex.apply(event.getUpserted(), event.getRemoved());
+	}
+	
+	@Override
+	public ProductProductServiceCollectionDtoResponse search(final String query, final Double minPrice,
+			final Double maxPrice, final boolean inStockOnly, final int limit) {
+		
+		// only the very first searches can find the catalog not loaded yet, later ones never leave the proxy
+		this.productCacheService.ensureFresh();
+		final List<Integer> productIds = this.productSearchIndex.search(query, minPrice, maxPrice, inStockOnly,
+				Math.max(1, Math.min(limit, MAX_LIMIT)));
+		final Map<Integer, ProductDto> productDtos = this.productCacheService.findAllByIds(productIds);
+		return new ProductProductServiceCollectionDtoResponse(productIds.stream()
+				.map(productDtos::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList()));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
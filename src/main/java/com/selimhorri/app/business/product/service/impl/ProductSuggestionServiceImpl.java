@@ -0,0 +1,129 @@
+package com.selimhorri.app.business.product.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.business.product.event.ProductCatalogChangedEvent;
+import com.selimhorri.app.business.product.index.PrefixSuggestionIndex;
+import com.selimhorri.app.business.product.index.ProductSnapshot;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.SuggestionDto;
+import com.selimhorri.app.business.product.service.ProductCacheService;
+import com.selimhorri.app.business.product.service.ProductSuggestionService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class ProductSuggestionServiceImpl implements ProductSuggestionService {
+	
+	private static final int MAX_LIMIT = 20;
+	
+	private final ProductCacheService productCacheService;
+	private final AtomicReference<PrefixSuggestionIndex> index = new AtomicReference<>(PrefixSuggestionIndex.EMPTY);
+	private final Map<Integer, LongAdder> views = new ConcurrentHashMap<>();
+	private final AtomicBoolean dirty = new AtomicBoolean(true);
+	private final AtomicBoolean viewsChanged = new AtomicBoolean();
+	
+	public ProductSuggestionServiceImpl(final ProductCacheService productCacheService, final MeterRegistry meterRegistry) {
+		this.productCacheService = productCacheService;
+		Gauge.builder("proxy.catalog.suggest.index.bytes", this.index, index -> index.get().estimateBytes())
+				.description("Estimated memory held by the autocomplete index")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+		Gauge.builder("proxy.catalog.suggest.index.entries", this.index, index -> index.get().size())
+				.description("Keys held by the autocomplete index")
+				.register(meterRegistry);
+	}
+	
+	@Override
+	public List<SuggestionDto> suggest(final String prefix, final int limit) {
+		final List<Integer> productIds = this.index.get().suggest(prefix, Math.max(1, Math.min(limit, MAX_LIMIT)));
+		final Map<Integer, ProductDto> productDtos = this.productCacheService.findAllByIds(productIds);
+		return productIds.stream()
+				.map(productDtos::get)
+				.filter(Objects::nonNull)
+				.map(productDto -> SuggestionDto.builder()
+						.productId(productDto.getProductId())
+						.productTitle(productDto.getProductTitle())
+						.sku(productDto.getSku())
+						.build())
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Counts views of catalog products only, the route is public and any id can be requested.
+	 * Counts reach the ranking with the next scheduled rebuild, at most one per interval however many views arrive.
+	 */
+	@Override
+	public void recordView(final String productId) {
+		final int id;
+		try {
+			id = Integer.parseInt(productId);
+		}
+		catch (NumberFormatException e) {
+			// not a product, nothing to count
+			return;
+		}
+		if (this.productCacheService.getSnapshot().find(id) >= 0) {
+			this.views.computeIfAbsent(id, key -> new LongAdder()).increment();
+			// read first, every view writing the shared flag would contend on it
+			if (!this.viewsChanged.get())
+				this.viewsChanged.set(true);
+		}
+	}
+	
+	@EventListener
+	public void onCatalogChanged(final ProductCatalogChangedEvent event) {
+		this.dirty.set(true);
+	}
+	
+	/**
+	 * Rebuilds on the scheduler thread and swaps the new index in, requests keep reading
+	 * the previous one meanwhile and never wait for a build.
+	 */
+	@Override
+	@Scheduled(fixedDelayString = "${app.catalog.suggest-rebuild-interval:PT30S}")
+	public void rebuild() {
+		// both flags are cleared, views counted from here on are picked up by the next run
+		if (!(this.dirty.getAndSet(false) | this.viewsChanged.getAndSet(false)))
+			return;
+		final PrefixSuggestionIndex.Builder builder = PrefixSuggestionIndex.builder();
+		final ProductSnapshot snapshot = this.productCacheService.getSnapshot();
+		// products gone from the catalog stop being counted
+		this.views.keySet().removeIf(productId -> snapshot.find(productId) < 0);
+		snapshot.forEach(product -> {
+			final LongAdder productViews = this.views.get(product.getProductId());
+			builder.add(product.getProductId(), product.getProductTitle(), product.getSku(),
+					productViews == null ? 0L : productViews.sum());
+		});
+		final PrefixSuggestionIndex rebuilt = builder.build();
+		this.index.set(rebuilt);
+		log.debug("Suggestion index rebuilt with {} keys, {} bytes", rebuilt.size(), rebuilt.estimateBytes());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,50 @@
+package com.selimhorri.app.business.query.controller;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.business.auth.util.AuthUtil;
+import com.selimhorri.app.business.query.model.QueryRequest;
+import com.selimhorri.app.business.query.model.QueryResponse;
+import com.selimhorri.app.business.query.service.QueryService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/query")
+@RequiredArgsConstructor
+public class QueryController {
+	
+	@Autowired
+	private AuthUtil authUtil;
+	private final QueryService queryService;
+	
+	@PostMapping
+	public ResponseEntity<QueryResponse> execute(
+			@RequestBody @NotNull(message = "Input must not be NULL!") @Valid final QueryRequest queryRequest,
+			HttpServletRequest request, @AuthenticationPrincipal UserDetails userDetails) {
+		return ResponseEntity.ok(this.queryService.execute(queryRequest,
+				(String) request.getAttribute("userId"), authUtil.isAdmin(userDetails)));
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,36 @@
+package com.selimhorri.app.business.query.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class QueryRequest implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Valid
+	@NotEmpty(message = "Field must not be empty")
+	private List<QueryRoot> roots;
+	
+}
+
+
+
+
+
+
+
+
+
+
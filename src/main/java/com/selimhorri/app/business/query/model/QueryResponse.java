@@ -0,0 +1,40 @@
+package com.selimhorri.app.business.query.model;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class QueryResponse implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Map<String, List<JsonNode>> data;
+	
+	@JsonInclude(Include.NON_NULL)
+	private Set<String> unavailableSections;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,50 @@
+package com.selimhorri.app.business.query.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class QueryRoot implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private String alias;
+	
+	@NotBlank(message = "Field must not be blank")
+	private String resource;
+	
+	@NotEmpty(message = "Field must not be empty")
+	private List<String> ids;
+	
+	/**
+	 * Selection tree, each key is a field name mapped either to true
+	 * for a leaf or to the nested selection of that field.
+	 */
+	@NotNull(message = "Field must not be NULL")
+	private JsonNode fields;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,42 @@
+package com.selimhorri.app.business.query.resolver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.business.aggregation.util.FanOut;
+import com.selimhorri.app.business.order.service.CartClientService;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class CartQueryResolver implements QueryResolver {
+	
+	private final CartClientService cartClientService;
+	
+	@Override
+	public String getResource() {
+		return "carts";
+	}
+	
+	@Override
+	public Supplier<Map<String, Object>> fork(final Set<String> ids, final FanOut fanOut) {
+		return QueryResolver.forkEach(this.getResource(), ids, fanOut,
+				id -> this.cartClientService.findById(id).getBody());
+	}
+	
+	@Override
+	public Map<String, QueryEdge> getEdges() {
+		return Map.of("user", new QueryEdge("users", "/userId"));
+	}
+	
+	@Override
+	public List<String> getOwnerPointers() {
+		return List.of("/userId", "/user/userId");
+	}
+	
+}
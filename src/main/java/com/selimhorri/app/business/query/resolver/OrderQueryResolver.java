@@ -0,0 +1,41 @@
+package com.selimhorri.app.business.query.resolver;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.business.aggregation.util.FanOut;
+import com.selimhorri.app.business.order.service.OrderClientService;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class OrderQueryResolver implements QueryResolver {
+	
+	private final OrderClientService orderClientService;
+	
+	@Override
+	public String getResource() {
+		return "orders";
+	}
+	
+	@Override
+	public Supplier<Map<String, Object>> fork(final Set<String> ids, final FanOut fanOut) {
+		return QueryResolver.forkEach(this.getResource(), ids, fanOut,
+				id -> this.orderClientService.findById(id).getBody());
+	}
+	
+	@Override
+	public Map<String, QueryEdge> getEdges() {
+		return Map.of("cart", new QueryEdge("carts", "/cart/cartId"));
+	}
+	
+	@Override
+	public String getOwnerEdge() {
+		return "cart";
+	}
+	
+}
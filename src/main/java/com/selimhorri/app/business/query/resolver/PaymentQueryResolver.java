@@ -0,0 +1,41 @@
+package com.selimhorri.app.business.query.resolver;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.business.aggregation.util.FanOut;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentQueryResolver implements QueryResolver {
+	
+	private final PaymentClientService paymentClientService;
+	
+	@Override
+	public String getResource() {
+		return "payments";
+	}
+	
+	@Override
+	public Supplier<Map<String, Object>> fork(final Set<String> ids, final FanOut fanOut) {
+		return QueryResolver.forkEach(this.getResource(), ids, fanOut,
+				id -> this.paymentClientService.findById(id).getBody());
+	}
+	
+	@Override
+	public Map<String, QueryEdge> getEdges() {
+		return Map.of("order", new QueryEdge("orders", "/order/orderId"));
+	}
+	
+	@Override
+	public String getOwnerEdge() {
+		return "order";
+	}
+	
+}
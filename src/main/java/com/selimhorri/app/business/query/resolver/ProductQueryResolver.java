@@ -0,0 +1,52 @@
+package com.selimhorri.app.business.query.resolver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.business.aggregation.util.FanOut;
+import com.selimhorri.app.business.product.service.ProductCacheService;
+import com.selimhorri.app.constant.AppConstant;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class ProductQueryResolver implements QueryResolver {
+	
+	private final ProductCacheService productCacheService;
+	
+	@Override
+	public String getResource() {
+		return "products";
+	}
+	
+	/**
+	 * Products are resolved as one batch through the local cache.
+	 */
+	@Override
+	public Supplier<Map<String, Object>> fork(final Set<String> ids, final FanOut fanOut) {
+		final Set<Integer> productIds = ids.stream()
+				.filter(id -> id.matches(AppConstant.ID_PATTERN))
+				.map(Integer::valueOf)
+				.collect(Collectors.toSet());
+		final var batch = fanOut.fork(this.getResource(), () -> this.productCacheService.findAllByIds(productIds));
+		return () -> {
+			final var productDtos = fanOut.join(batch);
+			final Map<String, Object> loaded = new HashMap<>();
+			if (productDtos != null)
+				productDtos.forEach((productId, productDto) -> loaded.put(productId.toString(), productDto));
+			return loaded;
+		};
+	}
+	
+	@Override
+	public boolean isPublic() {
+		return true;
+	}
+	
+}
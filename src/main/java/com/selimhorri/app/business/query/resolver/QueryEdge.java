@@ -0,0 +1,25 @@
+package com.selimhorri.app.business.query.resolver;
+
+import lombok.Value;
+
+/**
+ * Link from a field of a resource to another resource, the target id is read
+ * from the source document at the given JSON pointer.
+ */
+@Value
+public class QueryEdge {
+	
+	String resource;
+	String idPointer;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,62 @@
+package com.selimhorri.app.business.query.resolver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.selimhorri.app.business.aggregation.util.FanOut;
+import com.selimhorri.app.constant.AppConstant;
+
+public interface QueryResolver {
+	
+	String getResource();
+	
+	/**
+	 * Starts loading all given ids at once and returns the handle joining them,
+	 * ids which could not be loaded are absent from the joined map.
+	 */
+	Supplier<Map<String, Object>> fork(final Set<String> ids, final FanOut fanOut);
+	
+	default Map<String, QueryEdge> getEdges() {
+		return Map.of();
+	}
+	
+	/**
+	 * Edge to follow when the owner is not part of the resource itself.
+	 */
+	default String getOwnerEdge() {
+		return null;
+	}
+	
+	default List<String> getOwnerPointers() {
+		return List.of();
+	}
+	
+	default boolean isPublic() {
+		return false;
+	}
+	
+	/**
+	 * Forks one branch per id, ids not matching {@link AppConstant#ID_PATTERN} are never sent upstream.
+	 */
+	static Supplier<Map<String, Object>> forkEach(final String resource, final Set<String> ids,
+			final FanOut fanOut, final Function<String, Object> loader) {
+		final Map<String, FanOut.Branch<Object>> branches = new HashMap<>(ids.size() * 2);
+		ids.stream()
+				.filter(id -> id.matches(AppConstant.ID_PATTERN))
+				.forEach(id -> branches.put(id, fanOut.fork(resource, () -> loader.apply(id))));
+		return () -> {
+			final Map<String, Object> loaded = new HashMap<>(branches.size() * 2);
+			branches.forEach((id, branch) -> {
+				final Object value = fanOut.join(branch);
+				if (value != null)
+					loaded.put(id, value);
+			});
+			return loaded;
+		};
+	}
+	
+}
@@ -0,0 +1,37 @@
+package com.selimhorri.app.business.query.resolver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.business.aggregation.util.FanOut;
+import com.selimhorri.app.business.user.service.UserClientService;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class UserQueryResolver implements QueryResolver {
+	
+	private final UserClientService userClientService;
+	
+	@Override
+	public String getResource() {
+		return "users";
+	}
+	
+	@Override
+	public Supplier<Map<String, Object>> fork(final Set<String> ids, final FanOut fanOut) {
+		return QueryResolver.forkEach(this.getResource(), ids, fanOut,
+				id -> this.userClientService.findById(id).getBody());
+	}
+	
+	@Override
+	public List<String> getOwnerPointers() {
+		return List.of("/userId");
+	}
+	
+}
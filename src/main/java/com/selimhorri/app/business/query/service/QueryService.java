@@ -0,0 +1,10 @@
+package com.selimhorri.app.business.query.service;
+
+import com.selimhorri.app.business.query.model.QueryRequest;
+import com.selimhorri.app.business.query.model.QueryResponse;
+
+public interface QueryService {
+	
+	QueryResponse execute(final QueryRequest queryRequest, final String authUserId, final boolean isAdmin);
+	
+}
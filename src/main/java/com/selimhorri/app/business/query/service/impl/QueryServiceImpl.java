@@ -0,0 +1,270 @@
+package com.selimhorri.app.business.query.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.selimhorri.app.business.aggregation.util.FanOut;
+import com.selimhorri.app.business.aggregation.util.FanOutUtil;
+import com.selimhorri.app.business.query.model.QueryRequest;
+import com.selimhorri.app.business.query.model.QueryResponse;
+import com.selimhorri.app.business.query.model.QueryRoot;
+import com.selimhorri.app.business.query.resolver.QueryEdge;
+import com.selimhorri.app.business.query.resolver.QueryResolver;
+import com.selimhorri.app.business.query.service.QueryService;
+import com.selimhorri.app.config.query.QueryProperties;
+import com.selimhorri.app.exception.wrapper.QueryRejectedException;
+import com.selimhorri.app.exception.wrapper.UnauthorizedException;
+
+import lombok.Value;
+
+/**
+ * Resolves a query breadth first, every level of the selection tree is loaded as
+ * one batch per resource so each distinct entity costs at most one upstream call per query.
+ */
+@Service
+public class QueryServiceImpl implements QueryService {
+	
+	private final Map<String, QueryResolver> resolvers;
+	private final FanOutUtil fanOutUtil;
+	private final ObjectMapper objectMapper;
+	private final QueryProperties queryProperties;
+	
+	public QueryServiceImpl(final List<QueryResolver> queryResolvers, final FanOutUtil fanOutUtil,
+			final ObjectMapper objectMapper, final QueryProperties queryProperties) {
+		this.resolvers = queryResolvers.stream()
+				.collect(Collectors.toUnmodifiableMap(QueryResolver::getResource, Function.identity()));
+		this.fanOutUtil = fanOutUtil;
+		this.objectMapper = objectMapper;
+		this.queryProperties = queryProperties;
+	}
+	
+	@Override
+	public QueryResponse execute(final QueryRequest queryRequest, final String authUserId, final boolean isAdmin) {
+		
+		this.validate(queryRequest.getRoots());
+		
+		final FanOut fanOut = this.fanOutUtil.begin();
+		final Map<String, JsonNode> resolved = new HashMap<>();
+		List<WorkItem> frontier = queryRequest.getRoots().stream()
+				.flatMap(root -> root.getIds().stream()
+						.distinct()
+						.map(id -> new WorkItem(root.getResource(), id, root.getFields(), true)))
+				.collect(Collectors.toList());
+		while (!frontier.isEmpty()) {
+			this.load(frontier, resolved, fanOut);
+			frontier = this.expand(frontier, resolved);
+		}
+		
+		if (!isAdmin)
+			queryRequest.getRoots().forEach(root -> this.authorize(root, authUserId, resolved));
+		
+		final Map<String, List<JsonNode>> data = new LinkedHashMap<>();
+		queryRequest.getRoots().forEach(root -> data.put(aliasOf(root), root.getIds().stream()
+				.map(id -> this.project(root.getResource(), id, root.getFields(), resolved))
+				.collect(Collectors.toList())));
+		return QueryResponse.builder()
+				.data(data)
+				.unavailableSections(fanOut.getUnavailable())
+				.build();
+	}
+	
+	private void validate(final List<QueryRoot> roots) {
+		final Set<String> aliases = new HashSet<>();
+		int cost = 0;
+		for (final QueryRoot root : roots) {
+			final QueryResolver resolver = this.resolvers.get(root.getResource());
+			if (resolver == null)
+				throw new QueryRejectedException("Unknown resource: " + root.getResource());
+			if (!aliases.add(aliasOf(root)))
+				throw new QueryRejectedException("Duplicate root: " + aliasOf(root) + ", use an alias");
+			if (root.getIds().size() > this.queryProperties.getMaxIds())
+				throw new QueryRejectedException("Too many ids for " + aliasOf(root) + ", max is "
+						+ this.queryProperties.getMaxIds());
+			if (!root.getFields().isObject() || root.getFields().size() == 0)
+				throw new QueryRejectedException("Fields of " + aliasOf(root) + " must be a non empty object");
+			cost += root.getIds().size() * this.cost(resolver, root.getFields(), 1);
+		}
+		if (cost > this.queryProperties.getMaxCost())
+			throw new QueryRejectedException("Query cost " + cost + " exceeds max of " + this.queryProperties.getMaxCost());
+	}
+	
+	/**
+	 * Each selected field costs one, following an edge to another resource costs one more.
+	 */
+	private int cost(final QueryResolver resolver, final JsonNode selection, final int depth) {
+		if (depth > this.queryProperties.getMaxDepth())
+			throw new QueryRejectedException("Query depth exceeds max of " + this.queryProperties.getMaxDepth());
+		int cost = 0;
+		final var fields = selection.fields();
+		while (fields.hasNext()) {
+			final var field = fields.next();
+			cost++;
+			if (field.getValue().isObject()) {
+				final QueryEdge edge = resolver == null ? null : resolver.getEdges().get(field.getKey());
+				cost += edge == null ? this.cost(null, field.getValue(), depth + 1)
+						: 1 + this.cost(this.resolvers.get(edge.getResource()), field.getValue(), depth + 1);
+			}
+		}
+		return cost;
+	}
+	
+	private void load(final List<WorkItem> frontier, final Map<String, JsonNode> resolved, final FanOut fanOut) {
+		
+		final Map<String, Set<String>> missing = new HashMap<>();
+		frontier.stream()
+				.filter(item -> !resolved.containsKey(keyOf(item.getResource(), item.getId())))
+				.forEach(item -> missing.computeIfAbsent(item.getResource(), resource -> new HashSet<>()).add(item.getId()));
+		
+		// every resource of the level is in flight before the first one is joined
+		final Map<String, Supplier<Map<String, Object>>> handles = new HashMap<>();
+		missing.forEach((resource, ids) -> handles.put(resource, this.resolvers.get(resource).fork(ids, fanOut)));
+		handles.forEach((resource, handle) -> {
+			final Map<String, Object> loaded = handle.get();
+			missing.get(resource).forEach(id -> {
+				final Object value = loaded.get(id);
+				resolved.put(keyOf(resource, id), value == null ? MissingNode.getInstance()
+						: this.objectMapper.valueToTree(value));
+			});
+		});
+	}
+	
+	private List<WorkItem> expand(final List<WorkItem> frontier, final Map<String, JsonNode> resolved) {
+		final List<WorkItem> next = new ArrayList<>();
+		for (final WorkItem item : frontier) {
+			final JsonNode node = resolved.get(keyOf(item.getResource(), item.getId()));
+			if (node == null || node.isMissingNode())
+				continue;
+			final QueryResolver resolver = this.resolvers.get(item.getResource());
+			if (item.getSelection() != null)
+				item.getSelection().fields().forEachRemaining(field -> {
+					final QueryEdge edge = resolver.getEdges().get(field.getKey());
+					final String targetId = edge == null ? null : textOf(node.at(edge.getIdPointer()));
+					if (targetId != null && field.getValue().isObject())
+						next.add(new WorkItem(edge.getResource(), targetId, field.getValue(), false));
+				});
+			if (item.isOwnerChain() && resolver.getOwnerEdge() != null) {
+				final QueryEdge edge = resolver.getEdges().get(resolver.getOwnerEdge());
+				final String targetId = textOf(node.at(edge.getIdPointer()));
+				if (targetId != null)
+					next.add(new WorkItem(edge.getResource(), targetId, null, true));
+			}
+		}
+		return next;
+	}
+	
+	private void authorize(final QueryRoot root, final String authUserId, final Map<String, JsonNode> resolved) {
+		if (this.resolvers.get(root.getResource()).isPublic())
+			return;
+		root.getIds().forEach(id -> {
+			final JsonNode node = resolved.get(keyOf(root.getResource(), id));
+			if (node == null || node.isMissingNode())
+				return;
+			final String ownerId = this.ownerOf(root.getResource(), id, resolved);
+			if (ownerId == null || !ownerId.equals(authUserId))
+				throw new UnauthorizedException("You can access to resources of your own");
+		});
+	}
+	
+	private String ownerOf(final String resource, final String id, final Map<String, JsonNode> resolved) {
+		final JsonNode node = resolved.get(keyOf(resource, id));
+		if (node == null || node.isMissingNode())
+			return null;
+		final QueryResolver resolver = this.resolvers.get(resource);
+		for (final String pointer : resolver.getOwnerPointers()) {
+			final String ownerId = textOf(node.at(pointer));
+			if (ownerId != null)
+				return ownerId;
+		}
+		if (resolver.getOwnerEdge() == null)
+			return null;
+		final QueryEdge edge = resolver.getEdges().get(resolver.getOwnerEdge());
+		final String targetId = textOf(node.at(edge.getIdPointer()));
+		return targetId == null ? null : this.ownerOf(edge.getResource(), targetId, resolved);
+	}
+	
+	private JsonNode project(final String resource, final String id, final JsonNode selection,
+			final Map<String, JsonNode> resolved) {
+		final JsonNode node = resolved.get(keyOf(resource, id));
+		if (node == null || node.isMissingNode())
+			return NullNode.getInstance();
+		return this.projectNode(this.resolvers.get(resource), node, selection, resolved);
+	}
+	
+	private JsonNode projectNode(final QueryResolver resolver, final JsonNode node, final JsonNode selection,
+			final Map<String, JsonNode> resolved) {
+		final ObjectNode projected = this.objectMapper.createObjectNode();
+		selection.fields().forEachRemaining(field -> {
+			final JsonNode subSelection = field.getValue();
+			final QueryEdge edge = resolver == null ? null : resolver.getEdges().get(field.getKey());
+			final String targetId = edge == null ? null : textOf(node.at(edge.getIdPointer()));
+			if (targetId != null && subSelection.isObject()) {
+				projected.set(field.getKey(), this.project(edge.getResource(), targetId, subSelection, resolved));
+				return;
+			}
+			final JsonNode value = node.get(field.getKey());
+			if (value == null)
+				return;
+			if (subSelection.isObject() && value.isObject())
+				projected.set(field.getKey(), this.projectNode(null, value, subSelection, resolved));
+			else if (subSelection.isObject() && value.isArray()) {
+				final ArrayNode elements = projected.putArray(field.getKey());
+				value.forEach(element -> elements.add(element.isObject()
+						? this.projectNode(null, element, subSelection, resolved) : element));
+			}
+			else
+				projected.set(field.getKey(), value);
+		});
+		return projected;
+	}
+	
+	private static String aliasOf(final QueryRoot root) {
+		return root.getAlias() == null ? root.getResource() : root.getAlias();
+	}
+	
+	private static String keyOf(final String resource, final String id) {
+		return resource + ':' + id;
+	}
+	
+	private static String textOf(final JsonNode node) {
+		return node == null || node.isMissingNode() || node.isNull() ? null : node.asText();
+	}
+	
+	@Value
+	private static class WorkItem {
+		
+		String resource;
+		String id;
+		JsonNode selection;
+		boolean ownerChain;
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
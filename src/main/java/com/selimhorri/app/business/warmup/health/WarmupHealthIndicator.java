@@ -0,0 +1,39 @@
+package com.selimhorri.app.business.warmup.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.business.warmup.service.WarmupService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Out of service until warmup has run, the readiness group includes it so traffic waits for it.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+	
+	private final WarmupService warmupService;
+	
+	@Override
+	public Health health() {
+		return (this.warmupService.isComplete() ? Health.up() : Health.outOfService())
+				.withDetails(this.warmupService.getSteps())
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,11 @@
+package com.selimhorri.app.business.warmup.service;
+
+import java.util.Map;
+
+public interface WarmupService {
+	
+	void warmup();
+	boolean isComplete();
+	Map<String, String> getSteps();
+	
+}
@@ -0,0 +1,149 @@
+package com.selimhorri.app.business.warmup.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.product.index.ProductSnapshot;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.service.CategoryIndexService;
+import com.selimhorri.app.business.product.service.ProductCacheService;
+import com.selimhorri.app.business.product.service.ProductSuggestionService;
+import com.selimhorri.app.business.warmup.service.WarmupService;
+import com.selimhorri.app.config.warmup.WarmupProperties;
+import com.selimhorri.app.jwt.util.JwtUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the catalog and runs the hot Feign, JWT and Jackson paths once the application is up,
+ * readiness stays out of service until this is done so traffic only reaches warm instances.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WarmupServiceImpl implements WarmupService {
+	
+	private final WarmupProperties warmupProperties;
+	private final CategoryIndexService categoryIndexService;
+	private final ProductCacheService productCacheService;
+	private final ProductSuggestionService productSuggestionService;
+	private final JwtUtil jwtUtil;
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+	
+	private final Map<String, String> steps = Collections.synchronizedMap(new LinkedHashMap<>());
+	private volatile boolean complete;
+	private volatile long deadline;
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (!this.warmupProperties.isEnabled()) {
+			this.complete = true;
+			return;
+		}
+		final Thread thread = new Thread(this::warmup, "warmup");
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	@Override
+	public void warmup() {
+		final Timer.Sample sample = Timer.start(this.meterRegistry);
+		this.deadline = System.nanoTime() + this.warmupProperties.getTimeout().toNanos();
+		// Feign to the product service, then the indexes built from its answers
+		this.step("categories", this.categoryIndexService::refresh);
+		this.step("products", this.productCacheService::ensureFresh);
+		this.step("suggestions", this.productSuggestionService::rebuild);
+		this.step("jwt", this::warmupJwt);
+		this.step("jackson", this::warmupJackson);
+		final long nanos = sample.stop(Timer.builder("proxy.warmup.duration")
+				.description("Time from application ready to accepting traffic")
+				.register(this.meterRegistry));
+		this.complete = true;
+		log.info("Warmup completed in {} ms: {}", nanos / 1_000_000L, this.steps);
+	}
+	
+	@Override
+	public boolean isComplete() {
+		return this.complete;
+	}
+	
+	@Override
+	public Map<String, String> getSteps() {
+		synchronized (this.steps) {
+			return new LinkedHashMap<>(this.steps);
+		}
+	}
+	
+	private void step(final String name, final Step step) {
+		// a slow or failing upstream must not keep the instance out of rotation forever
+		if (System.nanoTime() - this.deadline > 0L) {
+			this.steps.put(name, "skipped");
+			return;
+		}
+		final long start = System.nanoTime();
+		try {
+			step.run();
+			this.steps.put(name, "done in " + (System.nanoTime() - start) / 1_000_000L + " ms");
+		}
+		catch (Exception e) {
+			log.warn("Warmup step {} failed: {}", name, e.getMessage());
+			this.steps.put(name, "failed: " + e.getMessage());
+		}
+	}
+	
+	private void warmupJwt() {
+		final UserDetails userDetails = User.withUsername("warmup")
+				.password("")
+				.authorities(Collections.emptyList())
+				.build();
+		final String token = this.jwtUtil.generateToken(userDetails, "0");
+		for (int i = 0; i < this.warmupProperties.getIterations(); i++)
+			this.jwtUtil.validateToken(token, userDetails);
+	}
+	
+	private void warmupJackson() throws Exception {
+		final ProductSnapshot snapshot = this.productCacheService.getSnapshot();
+		final List<Integer> productIds = IntStream.range(0, Math.min(snapshot.size(), this.warmupProperties.getMaxProducts()))
+				.mapToObj(snapshot::productIdAt)
+				.collect(Collectors.toList());
+		final ProductProductServiceCollectionDtoResponse response = new ProductProductServiceCollectionDtoResponse(
+				new ArrayList<>(this.productCacheService.findAllByIds(productIds).values()));
+		for (int i = 0; i < this.warmupProperties.getIterations(); i++)
+			this.objectMapper.readValue(this.objectMapper.writeValueAsBytes(response),
+					ProductProductServiceCollectionDtoResponse.class);
+	}
+	
+	@FunctionalInterface
+	private interface Step {
+		void run() throws Exception;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,52 @@
+package com.selimhorri.app.config.accesslog;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(AccessLogProperties.class)
+@ConditionalOnProperty(prefix = "app.access-log", name = "enabled", havingValue = "true")
+public class AccessLogConfig {
+	
+	@Bean
+	public AccessLogRingBuffer accessLogRingBuffer(final AccessLogProperties accessLogProperties,
+			final MeterRegistry meterRegistry) {
+		final AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(accessLogProperties.getBufferCapacity());
+		FunctionCounter.builder("proxy.accesslog.dropped", ringBuffer, AccessLogRingBuffer::getDropped)
+				.description("Access log records dropped because the buffer was full")
+				.register(meterRegistry);
+		Gauge.builder("proxy.accesslog.pending", ringBuffer, AccessLogRingBuffer::getPending)
+				.description("Access log records waiting for the writer")
+				.register(meterRegistry);
+		return ringBuffer;
+	}
+	
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	public AccessLogWriter accessLogWriter(final AccessLogRingBuffer accessLogRingBuffer,
+			final AccessLogProperties accessLogProperties, final MeterRegistry meterRegistry) {
+		final AccessLogWriter writer = new AccessLogWriter(accessLogRingBuffer, accessLogProperties);
+		FunctionCounter.builder("proxy.accesslog.written", writer, AccessLogWriter::getWritten)
+				.description("Access log records written")
+				.register(meterRegistry);
+		return writer;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,33 @@
+package com.selimhorri.app.config.accesslog;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.access-log")
+public class AccessLogProperties {
+	
+	private boolean enabled = false;
+	private String directory = "logs/access";
+	// rounded up to a power of two, 256 bytes per record
+	private int bufferCapacity = 16384;
+	private int batchSize = 512;
+	private Duration idleWait = Duration.ofMillis(10);
+	private DataSize maxFileSize = DataSize.ofMegabytes(64);
+	private int maxHistory = 10;
+	
+}
+
+
+
+
+
+
+
+
+
+
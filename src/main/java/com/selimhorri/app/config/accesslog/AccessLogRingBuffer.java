@@ -0,0 +1,137 @@
+package com.selimhorri.app.config.accesslog;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free, many producers and one consumer queue of fixed size access log records.
+ * <p>
+ * Producers claim a sequence with a CAS, write their slot and publish it by storing the sequence
+ * in the slot's marker; the consumer reads published slots in order and releases them in bulk.
+ * When the consumer falls a full buffer behind, records are dropped and counted rather than
+ * making request threads wait. Nothing is allocated on the producer side.
+ */
+public class AccessLogRingBuffer {
+	
+	public static final int SLOT_BYTES = 256;
+	public static final int URI_BYTES = SLOT_BYTES - 22;
+	
+	private static final String[] METHODS = { "GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS", "TRACE" };
+	private static final String OTHER_METHOD = "OTHER";
+	
+	private final int capacity;
+	private final int mask;
+	private final ByteBuffer slots;
+	// sequence + 1 once the slot holding that sequence is fully written
+	private final AtomicLongArray published;
+	private final AtomicLong claimed = new AtomicLong();
+	private final AtomicLong consumed = new AtomicLong();
+	private final LongAdder dropped = new LongAdder();
+	private final byte[] uri = new byte[URI_BYTES];
+	
+	public AccessLogRingBuffer(final int requestedCapacity) {
+		this.capacity = Integer.highestOneBit(Math.max(1, requestedCapacity - 1)) << 1;
+		this.mask = this.capacity - 1;
+		this.slots = ByteBuffer.allocateDirect(this.capacity * SLOT_BYTES);
+		this.published = new AtomicLongArray(this.capacity);
+	}
+	
+	public boolean offer(final long timestamp, final long durationMicros, final int status, final String method,
+			final String uri, final int userId) {
+		long sequence;
+		do {
+			sequence = this.claimed.get();
+			if (sequence - this.consumed.get() >= this.capacity) {
+				this.dropped.increment();
+				return false;
+			}
+		}
+		while (!this.claimed.compareAndSet(sequence, sequence + 1));
+		
+		final int index = (int) (sequence & this.mask);
+		final int offset = index * SLOT_BYTES;
+		this.slots.putLong(offset, timestamp);
+		this.slots.putInt(offset + 8, (int) Math.min(Integer.MAX_VALUE, durationMicros));
+		this.slots.putInt(offset + 12, userId);
+		this.slots.putShort(offset + 16, (short) status);
+		this.slots.put(offset + 18, methodCode(method));
+		final int length = uri == null ? 0 : Math.min(uri.length(), URI_BYTES);
+		this.slots.putShort(offset + 20, (short) length);
+		for (int i = 0; i < length; i++) {
+			// request URIs are percent encoded, anything else is not worth a charset encoder here
+			final char c = uri.charAt(i);
+			this.slots.put(offset + 22 + i, c < 0x80 ? (byte) c : (byte) '?');
+		}
+		this.published.lazySet(index, sequence + 1);
+		return true;
+	}
+	
+	/**
+	 * Hands up to max published records to the handler, in order. Single consumer only, the
+	 * uri array passed to the handler is reused for the next record.
+	 */
+	public int drain(final RecordHandler handler, final int max) {
+		long next = this.consumed.get();
+		int drained = 0;
+		while (drained < max) {
+			final int index = (int) (next & this.mask);
+			if (this.published.get(index) != next + 1)
+				break;
+			final int offset = index * SLOT_BYTES;
+			final int length = this.slots.getShort(offset + 20);
+			for (int i = 0; i < length; i++)
+				this.uri[i] = this.slots.get(offset + 22 + i);
+			handler.onRecord(this.slots.getLong(offset), this.slots.getInt(offset + 8), this.slots.getShort(offset + 16),
+					methodName(this.slots.get(offset + 18)), this.slots.getInt(offset + 12), this.uri, length);
+			next++;
+			drained++;
+		}
+		if (drained > 0)
+			this.consumed.lazySet(next);
+		return drained;
+	}
+	
+	public int getCapacity() {
+		return this.capacity;
+	}
+	
+	public long getDropped() {
+		return this.dropped.sum();
+	}
+	
+	public long getPending() {
+		return this.claimed.get() - this.consumed.get();
+	}
+	
+	private static byte methodCode(final String method) {
+		for (int i = 0; i < METHODS.length; i++)
+			if (METHODS[i].equals(method))
+				return (byte) i;
+		return -1;
+	}
+	
+	private static String methodName(final byte code) {
+		return code >= 0 && code < METHODS.length ? METHODS[code] : OTHER_METHOD;
+	}
+	
+	@FunctionalInterface
+	public interface RecordHandler {
+		void onRecord(final long timestamp, final int durationMicros, final int status, final String method,
+				final int userId, final byte[] uri, final int uriLength);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
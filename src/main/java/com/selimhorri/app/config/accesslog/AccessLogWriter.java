@@ -0,0 +1,201 @@
+package com.selimhorri.app.config.accesslog;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The single consumer of the access log ring buffer: one thread drains records in batches and
+ * appends them to access.log, which is rolled by size and gzipped off the writer thread.
+ */
+@Slf4j
+public class AccessLogWriter {
+	
+	private static final String ACTIVE_FILE = "access.log";
+	private static final String ROLLED_PREFIX = "access-";
+	private static final DateTimeFormatter ROLLED_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")
+			.withZone(ZoneOffset.UTC);
+	
+	private final AccessLogRingBuffer ringBuffer;
+	private final AccessLogProperties accessLogProperties;
+	private final Path directory;
+	private final StringBuilder line = new StringBuilder(AccessLogRingBuffer.SLOT_BYTES);
+	private final ExecutorService compressor = Executors.newSingleThreadExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "access-log-gzip");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private volatile boolean running;
+	private volatile long written;
+	private Thread thread;
+	private OutputStream out;
+	private long fileBytes;
+	
+	public AccessLogWriter(final AccessLogRingBuffer ringBuffer, final AccessLogProperties accessLogProperties) {
+		this.ringBuffer = ringBuffer;
+		this.accessLogProperties = accessLogProperties;
+		this.directory = Paths.get(accessLogProperties.getDirectory());
+	}
+	
+	public void start() {
+		this.running = true;
+		this.thread = new Thread(this::run, "access-log-writer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+	
+	public void stop() throws InterruptedException {
+		this.running = false;
+		LockSupport.unpark(this.thread);
+		this.thread.join(TimeUnit.SECONDS.toMillis(5));
+		this.compressor.shutdown();
+		this.compressor.awaitTermination(30, TimeUnit.SECONDS);
+	}
+	
+	public long getWritten() {
+		return this.written;
+	}
+	
+	private void run() {
+		try {
+			this.open();
+			while (this.running || this.ringBuffer.getPending() > 0) {
+				final int drained = this.ringBuffer.drain(this::write, this.accessLogProperties.getBatchSize());
+				if (drained > 0) {
+					this.written += drained;
+					continue;
+				}
+				// caught up: hand the batch to the OS and idle
+				this.out.flush();
+				if (this.running)
+					LockSupport.parkNanos(this.accessLogProperties.getIdleWait().toNanos());
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			// from here on records pile up and are counted as dropped
+			log.error("Access log writer stopped: {}", e.getMessage());
+		}
+		finally {
+			this.close();
+		}
+	}
+	
+	private void write(final long timestamp, final int durationMicros, final int status, final String method,
+			final int userId, final byte[] uri, final int uriLength) {
+		try {
+			this.line.setLength(0);
+			this.line.append(Instant.ofEpochMilli(timestamp)).append(' ').append(method).append(' ');
+			for (int i = 0; i < uriLength; i++)
+				this.line.append((char) uri[i]);
+			this.line.append(' ').append(status).append(' ').append(durationMicros).append("us");
+			if (userId >= 0)
+				this.line.append(" user=").append(userId);
+			this.line.append('\n');
+			final byte[] bytes = this.line.toString().getBytes(StandardCharsets.US_ASCII);
+			this.out.write(bytes);
+			this.fileBytes += bytes.length;
+			if (this.fileBytes >= this.accessLogProperties.getMaxFileSize().toBytes())
+				this.roll();
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private void open() throws IOException {
+		Files.createDirectories(this.directory);
+		final Path active = this.directory.resolve(ACTIVE_FILE);
+		this.fileBytes = Files.exists(active) ? Files.size(active) : 0L;
+		this.out = new BufferedOutputStream(Files.newOutputStream(active, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND), 64 * 1024);
+	}
+	
+	private void roll() throws IOException {
+		this.out.close();
+		final String name = ROLLED_PREFIX + ROLLED_SUFFIX.format(Instant.now());
+		Path rolled = this.directory.resolve(name + ".log");
+		// several rolls within a millisecond under a burst
+		for (int i = 1; Files.exists(rolled) || Files.exists(rolled.resolveSibling(rolled.getFileName() + ".gz")); i++)
+			rolled = this.directory.resolve(name + "-" + i + ".log");
+		Files.move(this.directory.resolve(ACTIVE_FILE), rolled);
+		final Path compressed = rolled;
+		this.compressor.execute(() -> this.compress(compressed));
+		this.open();
+	}
+	
+	private void compress(final Path rolled) {
+		final Path gzipped = rolled.resolveSibling(rolled.getFileName() + ".gz");
+		try (final InputStream in = Files.newInputStream(rolled);
+				final OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(gzipped), 64 * 1024)) {
+			in.transferTo(gzip);
+		}
+		catch (IOException e) {
+			log.warn("Cannot compress access log {}: {}", rolled, e.getMessage());
+			return;
+		}
+		try {
+			Files.delete(rolled);
+			this.prune();
+		}
+		catch (IOException e) {
+			log.warn("Cannot clean up access logs: {}", e.getMessage());
+		}
+	}
+	
+	private void prune() throws IOException {
+		final List<Path> archives;
+		try (final Stream<Path> files = Files.list(this.directory)) {
+			// timestamped names sort chronologically
+			archives = files.filter(file -> file.getFileName().toString().startsWith(ROLLED_PREFIX)
+							&& file.getFileName().toString().endsWith(".gz"))
+					.sorted(Comparator.comparing(Path::toString).reversed())
+					.collect(Collectors.toList());
+		}
+		for (final Path archive : archives.subList(Math.min(archives.size(), this.accessLogProperties.getMaxHistory()), archives.size()))
+			Files.deleteIfExists(archive);
+	}
+	
+	private void close() {
+		try {
+			if (this.out != null)
+				this.out.close();
+		}
+		catch (IOException e) {
+			log.warn("Cannot close access log: {}", e.getMessage());
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,22 @@
+package com.selimhorri.app.config.cache;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CatalogCacheProperties.class)
+public class CatalogCacheConfig {
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,33 @@
+package com.selimhorri.app.config.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.selimhorri.app.business.product.index.ProductSearchIndex;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.catalog")
+public class CatalogCacheProperties {
+	
+	private Duration productTtl = Duration.ofMinutes(5);
+	private Duration minReloadInterval = Duration.ofSeconds(5);
+	private boolean snapshotOffHeap = true;
+	private String snapshotDirectory;
+	private Duration snapshotMaxAge = Duration.ofDays(1);
+	private boolean precompressedProducts;
+	private int maxPrefixExpansion = ProductSearchIndex.DEFAULT_MAX_PREFIX_EXPANSION;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,76 @@
+package com.selimhorri.app.config.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+
+import lombok.Getter;
+
+/**
+ * A response body encoded once, as is and gzipped, for entries served many times between two
+ * cache fills. Tomcat leaves responses which already carry a Content-Encoding alone.
+ */
+@Getter
+public final class EncodedPayload {
+	
+	private final String contentType;
+	private final byte[] identity;
+	private final byte[] gzip;
+	
+	private EncodedPayload(final String contentType, final byte[] identity, final byte[] gzip) {
+		this.contentType = contentType;
+		this.identity = identity;
+		this.gzip = gzip;
+	}
+	
+	/**
+	 * Compresses at the highest level, the cost is paid once per entry and not per request.
+	 */
+	public static EncodedPayload of(final String contentType, final byte[] identity) {
+		final ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, identity.length / 4));
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed) {
+			{
+				this.def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		}) {
+			out.write(identity);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return new EncodedPayload(contentType, identity, compressed.toByteArray());
+	}
+	
+	public void writeTo(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		final boolean gzipped = this.gzip.length < this.identity.length
+				&& GzipStreams.accepts(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+		final byte[] body = gzipped ? this.gzip : this.identity;
+		response.setContentType(this.contentType);
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzipped)
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, GzipStreams.GZIP);
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
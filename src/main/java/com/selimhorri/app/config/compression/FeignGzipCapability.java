@@ -0,0 +1,51 @@
+package com.selimhorri.app.config.compression;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.http.HttpHeaders;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+
+/**
+ * Inflates gzipped upstream bodies under every Feign client, ahead of the decoders. Methods returning
+ * the raw {@link Response} get the bytes as sent, PassThroughRelay decides whether to inflate them.
+ */
+public class FeignGzipCapability implements Capability {
+	
+	@Override
+	public Client enrich(final Client client) {
+		return (request, options) -> {
+			final Response response = client.execute(request, options);
+			if (response.body() == null || !GzipStreams.isGzip(response.headers().get(HttpHeaders.CONTENT_ENCODING))
+					|| request.requestTemplate().methodMetadata() != null
+					&& request.requestTemplate().methodMetadata().returnType() == Response.class)
+				return response;
+			final Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			headers.putAll(response.headers());
+			headers.remove(HttpHeaders.CONTENT_ENCODING);
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			return response.toBuilder()
+					.headers(headers)
+					.body(GzipStreams.decoding(response.body().asInputStream()), null)
+					.build();
+		};
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,79 @@
+package com.selimhorri.app.config.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Collection;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Accept-Encoding and Content-Encoding handling shared by the upstream transports and the relay.
+ */
+public final class GzipStreams {
+	
+	public static final String GZIP = "gzip";
+	
+	private static final int BUFFER_SIZE = 8 * 1024;
+	
+	private GzipStreams() {
+		
+	}
+	
+	public static boolean isGzip(final Collection<String> contentEncoding) {
+		if (contentEncoding != null)
+			for (final String value : contentEncoding)
+				if (value != null && GZIP.equalsIgnoreCase(value.trim()))
+					return true;
+		return false;
+	}
+	
+	/**
+	 * Inflates as the caller reads, nothing is buffered beyond the inflater window. An empty body,
+	 * a 204 or a HEAD answer, stays empty instead of failing on the missing gzip header.
+	 */
+	public static InputStream decoding(final InputStream in) throws IOException {
+		final PushbackInputStream peek = new PushbackInputStream(in, 1);
+		final int first = peek.read();
+		if (first == -1)
+			return peek;
+		peek.unread(first);
+		return new GZIPInputStream(peek, BUFFER_SIZE);
+	}
+	
+	public static boolean accepts(final String acceptEncoding) {
+		if (acceptEncoding == null)
+			return false;
+		for (final String coding : acceptEncoding.split(",")) {
+			final int parameters = coding.indexOf(';');
+			final String name = (parameters < 0 ? coding : coding.substring(0, parameters)).trim();
+			if (!GZIP.equalsIgnoreCase(name) && !"*".equals(name))
+				continue;
+			if (parameters < 0)
+				return true;
+			final String parameter = coding.substring(parameters + 1).trim();
+			if (!parameter.startsWith("q="))
+				return true;
+			try {
+				return Double.parseDouble(parameter.substring(2)) > 0.0;
+			}
+			catch (NumberFormatException e) {
+				return false;
+			}
+		}
+		return false;
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
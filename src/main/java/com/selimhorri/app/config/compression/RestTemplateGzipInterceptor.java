@@ -0,0 +1,90 @@
+package com.selimhorri.app.config.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Asks for gzip on RestTemplate calls and inflates the answer while the converters read it.
+ */
+public class RestTemplateGzipInterceptor implements ClientHttpRequestInterceptor {
+	
+	@Override
+	public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+			final ClientHttpRequestExecution execution) throws IOException {
+		if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING))
+			request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, GzipStreams.GZIP);
+		final ClientHttpResponse response = execution.execute(request, body);
+		if (!GzipStreams.isGzip(response.getHeaders().get(HttpHeaders.CONTENT_ENCODING)))
+			return response;
+		return new InflatingResponse(response);
+	}
+	
+	private static final class InflatingResponse implements ClientHttpResponse {
+		
+		private final ClientHttpResponse response;
+		private final HttpHeaders headers;
+		private InputStream body;
+		
+		private InflatingResponse(final ClientHttpResponse response) {
+			this.response = response;
+			this.headers = new HttpHeaders();
+			this.headers.putAll(response.getHeaders());
+			this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+			this.headers.remove(HttpHeaders.CONTENT_LENGTH);
+		}
+		
+		@Override
+		public HttpStatus getStatusCode() throws IOException {
+			return this.response.getStatusCode();
+		}
+		
+		@Override
+		public int getRawStatusCode() throws IOException {
+			return this.response.getRawStatusCode();
+		}
+		
+		@Override
+		public String getStatusText() throws IOException {
+			return this.response.getStatusText();
+		}
+		
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+		
+		@Override
+		public InputStream getBody() throws IOException {
+			if (this.body == null)
+				this.body = GzipStreams.decoding(this.response.getBody());
+			return this.body;
+		}
+		
+		@Override
+		public void close() {
+			this.response.close();
+		}
+		
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
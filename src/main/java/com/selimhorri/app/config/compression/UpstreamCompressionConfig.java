@@ -0,0 +1,52 @@
+package com.selimhorri.app.config.compression;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+
+import feign.Capability;
+import feign.RequestInterceptor;
+
+/**
+ * Collection responses from the upstream services cross the network gzipped. Spring Cloud builds
+ * the Apache client with content compression off, so the transports negotiate and inflate here.
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamCompressionProperties.class)
+@ConditionalOnProperty(prefix = "app.upstream-compression", name = "enabled", havingValue = "true")
+public class UpstreamCompressionConfig {
+	
+	@Bean
+	public RequestInterceptor feignAcceptGzipInterceptor() {
+		return template -> {
+			if (!template.headers().containsKey(HttpHeaders.ACCEPT_ENCODING))
+				template.header(HttpHeaders.ACCEPT_ENCODING, GzipStreams.GZIP);
+		};
+	}
+	
+	@Bean
+	public Capability feignGzipCapability() {
+		return new FeignGzipCapability();
+	}
+	
+	@Bean
+	public RestTemplateGzipInterceptor restTemplateGzipInterceptor() {
+		return new RestTemplateGzipInterceptor();
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
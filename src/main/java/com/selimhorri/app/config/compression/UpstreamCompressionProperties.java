@@ -0,0 +1,23 @@
+package com.selimhorri.app.config.compression;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.upstream-compression")
+public class UpstreamCompressionProperties {
+	
+	private boolean enabled;
+	
+}
+
+
+
+
+
+
+
+
+
+
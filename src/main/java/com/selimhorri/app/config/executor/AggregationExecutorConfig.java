@@ -0,0 +1,53 @@
+package com.selimhorri.app.config.executor;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.selimhorri.app.config.metrics.DownstreamMetrics;
+import com.selimhorri.app.config.timing.ServerTiming;
+
+import feign.Capability;
+
+@Configuration
+@EnableConfigurationProperties(AggregationProperties.class)
+public class AggregationExecutorConfig {
+	
+	/**
+	 * Bounded pool used to fan out downstream calls of aggregation endpoints. When saturated
+	 * a branch is rejected and its section reported unavailable, running it on the request
+	 * thread would put it out of reach of the deadline.
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "app.virtual-threads", name = "enabled", havingValue = "false", matchIfMissing = true)
+	public ThreadPoolTaskExecutor aggregationExecutor(final AggregationProperties aggregationProperties) {
+		final var executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(aggregationProperties.getCorePoolSize());
+		executor.setMaxPoolSize(aggregationProperties.getMaxPoolSize());
+		executor.setQueueCapacity(aggregationProperties.getQueueCapacity());
+		executor.setThreadNamePrefix("aggregation-");
+		executor.setTaskDecorator(task -> ServerTiming.propagate(DownstreamMetrics.propagate(task)));
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		return executor;
+	}
+	
+	@Bean
+	public Capability fanOutDeadlineCapability() {
+		return new FanOutDeadlineCapability();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,28 @@
+package com.selimhorri.app.config.executor;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.aggregation")
+public class AggregationProperties {
+	
+	private int corePoolSize = 16;
+	private int maxPoolSize = 64;
+	private int queueCapacity = 256;
+	private Duration branchTimeout = Duration.ofSeconds(2);
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,43 @@
+package com.selimhorri.app.config.executor;
+
+import java.util.concurrent.TimeUnit;
+
+import com.selimhorri.app.business.aggregation.util.FanOut;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+
+/**
+ * Caps the timeouts of Feign calls made from a fan-out branch to what is left of its deadline,
+ * an interrupt alone does not abort a blocking socket read on a platform thread.
+ */
+public class FanOutDeadlineCapability implements Capability {
+	
+	@Override
+	public Client enrich(final Client client) {
+		return (request, options) -> {
+			final long remaining = FanOut.remainingMillis();
+			if (remaining < 0L || remaining >= options.readTimeoutMillis())
+				return client.execute(request, options);
+			// a zero timeout would mean no timeout at all
+			final long timeout = Math.max(1L, remaining);
+			return client.execute(request, new Request.Options(
+					Math.min(timeout, options.connectTimeoutMillis()), TimeUnit.MILLISECONDS,
+					timeout, TimeUnit.MILLISECONDS, options.isFollowRedirects()));
+		};
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,70 @@
+package com.selimhorri.app.config.filter;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.selimhorri.app.config.accesslog.AccessLogRingBuffer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Enqueues one access log record per request, the file is written by AccessLogWriter.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(prefix = "app.access-log", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AccessLogFilter extends OncePerRequestFilter {
+	
+	private final AccessLogRingBuffer accessLogRingBuffer;
+	
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+			final FilterChain filterChain) throws ServletException, IOException {
+		final long start = System.nanoTime();
+		int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+		try {
+			filterChain.doFilter(request, response);
+			status = response.getStatus();
+		}
+		finally {
+			this.accessLogRingBuffer.offer(System.currentTimeMillis(), (System.nanoTime() - start) / 1_000L, status,
+					request.getMethod(), request.getRequestURI(), userIdOf(request));
+		}
+	}
+	
+	private static int userIdOf(final HttpServletRequest request) {
+		final Object userId = request.getAttribute("userId");
+		if (!(userId instanceof String))
+			return -1;
+		try {
+			return Integer.parseInt((String) userId);
+		}
+		catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
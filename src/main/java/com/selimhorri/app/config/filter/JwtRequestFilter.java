@@ -9,14 +9,21 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.selimhorri.app.config.timing.ServerTiming;
+import com.selimhorri.app.config.timing.ServerTiming.Span;
+import com.selimhorri.app.jwt.model.JwtClaims;
 import com.selimhorri.app.jwt.service.JwtService;
+import com.selimhorri.app.jwt.service.TokenRevocationService;
+import com.selimhorri.app.security.SecurityRoutes;
 
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,37 +34,51 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
 	private final UserDetailsService userDetailsService;
 	private final JwtService jwtService;
+	private final TokenRevocationService tokenRevocationService;
+
+	/**
+	 * Public routes are decided without an identity, so their tokens are neither parsed nor looked up.
+	 */
+	@Override
+	protected boolean shouldNotFilter(final HttpServletRequest request) {
+		return SecurityRoutes.isPublic(request);
+	}
 
 	@Override
 	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
 			final FilterChain filterChain)
 			throws ServletException, IOException {
 
-		log.info("**JwtRequestFilter, once per request, validating and extracting token*\n");
-
 		final var authorizationHeader = request.getHeader("Authorization");
 
-		String username = null;
-		String jwt = null;
+		JwtClaims claims = null;
 
 		if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-			jwt = authorizationHeader.substring(7);
-			username = jwtService.extractUsername(jwt);
+			final long parseStart = ServerTiming.start();
+			try {
+				claims = jwtService.extractAllClaims(authorizationHeader.substring(7));
+			}
+			catch (JwtException e) {
+				// expired or forged, the request stays anonymous and the entry point answers 401
+				log.debug("Rejected bearer token: {}", e.getMessage());
+			}
+			ServerTiming.stop(Span.JWT, parseStart);
 		}
 
-		if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+		if (claims != null && claims.getSubject() != null && !claims.isRefreshToken()
+				&& !this.tokenRevocationService.isRevoked(claims.getTokenId())
+				&& SecurityContextHolder.getContext().getAuthentication() == null) {
 
-			final UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+			final UserDetails userDetails = claims.isAccessToken() ? toUserDetails(claims) : this.loadUserDetails(claims);
 
-			if (this.jwtService.validateToken(jwt, userDetails)) {
-				final String userId = jwtService.extractUserId(jwt);
+			if (this.jwtService.validateToken(claims, userDetails)) {
+				final String userId = claims.getUserId();
 
 				final UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
 						userDetails, null, userDetails.getAuthorities());
 
 				usernamePasswordAuthenticationToken
 						.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-				System.out.println("ID EN CADENA "+userId);
 				request.setAttribute("userId", userId);
 
 				SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
@@ -66,7 +87,26 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 		}
 
 		filterChain.doFilter(request, response);
-		log.info("**Jwt request filtered!*\n");
+	}
+
+	/**
+	 * Access tokens are short lived and carry the roles, so they are trusted as issued.
+	 */
+	private static UserDetails toUserDetails(final JwtClaims claims) {
+		return User.withUsername(claims.getSubject())
+				.password("")
+				.authorities(claims.getRoles() == null ? new String[0] : claims.getRoles().toArray(new String[0]))
+				.build();
+	}
+
+	/**
+	 * Tokens issued before access tokens carried roles still need the user service.
+	 */
+	private UserDetails loadUserDetails(final JwtClaims claims) {
+		final long lookupStart = ServerTiming.start();
+		final UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+		ServerTiming.stop(Span.USER, lookupStart);
+		return userDetails;
 	}
 
 }
@@ -0,0 +1,84 @@
+package com.selimhorri.app.config.filter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.selimhorri.app.config.logging.RequestLogProperties;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One summary line per request instead of logging along the way. Failures and slow requests are
+ * always logged, the rest is sampled, and nothing is formatted unless the line is actually written.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+@RequiredArgsConstructor
+public class RequestSummaryFilter extends OncePerRequestFilter {
+	
+	private final RequestLogProperties requestLogProperties;
+	
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+			final FilterChain filterChain) throws ServletException, IOException {
+		
+		if (!this.requestLogProperties.isEnabled()) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		
+		final long start = System.nanoTime();
+		Exception failure = null;
+		try {
+			filterChain.doFilter(request, response);
+		}
+		catch (IOException | ServletException | RuntimeException e) {
+			failure = e;
+			throw e;
+		}
+		finally {
+			this.summarize(request, response, System.nanoTime() - start, failure);
+		}
+	}
+	
+	private void summarize(final HttpServletRequest request, final HttpServletResponse response, final long nanos,
+			final Exception failure) {
+		final int status = failure == null ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+		if (status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+			if (log.isWarnEnabled())
+				log.warn("{} {} status={} durationMs={} userId={} error={}", request.getMethod(), request.getRequestURI(),
+						status, nanos / 1_000_000L, request.getAttribute("userId"), failure == null ? null : failure.toString());
+			return;
+		}
+		if (!log.isInfoEnabled() || (nanos < this.requestLogProperties.getSlowThreshold().toNanos()
+				&& ThreadLocalRandom.current().nextDouble() >= this.requestLogProperties.getSuccessSampleRate()))
+			return;
+		log.info("{} {} status={} durationMs={} userId={}", request.getMethod(), request.getRequestURI(),
+				status, nanos / 1_000_000L, request.getAttribute("userId"));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,73 @@
+package com.selimhorri.app.config.filter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.selimhorri.app.config.timing.ServerTiming;
+import com.selimhorri.app.config.timing.ServerTimingProperties;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Adds a Server-Timing header to sampled requests. Wraps the security chain so the JWT spans are
+ * included, sampled responses are buffered since the header can only be set once the body is written.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+	
+	private static final String SERVER_TIMING = "Server-Timing";
+	
+	private final ServerTimingProperties serverTimingProperties;
+	
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+			final FilterChain filterChain) throws ServletException, IOException {
+		
+		if (!this.isSampled()) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		
+		final ServerTiming serverTiming = ServerTiming.begin();
+		final ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+		try {
+			filterChain.doFilter(request, responseWrapper);
+		}
+		finally {
+			ServerTiming.end();
+			responseWrapper.setHeader(SERVER_TIMING, serverTiming.toHeaderValue());
+			responseWrapper.copyBodyToResponse();
+		}
+	}
+	
+	private boolean isSampled() {
+		return this.serverTimingProperties.isEnabled() && (this.serverTimingProperties.getSampleRate() >= 1.0
+				|| ThreadLocalRandom.current().nextDouble() < this.serverTimingProperties.getSampleRate());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
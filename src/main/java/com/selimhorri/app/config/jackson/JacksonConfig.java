@@ -0,0 +1,36 @@
+package com.selimhorri.app.config.jackson;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Tunes the one ObjectMapper behind MVC, the Feign decoders and the RestTemplate, all of which
+ * read and write through Boot's HttpMessageConverters.
+ */
+@Configuration
+public class JacksonConfig {
+	
+	/**
+	 * Property access through generated lambdas instead of reflection.
+	 */
+	@Bean
+	public Module blackbirdModule() {
+		return new BlackbirdModule();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,41 @@
+package com.selimhorri.app.config.jwt;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.jwt.service.JwtKeyService;
+import com.selimhorri.app.jwt.util.JwtCodec;
+import com.selimhorri.app.jwt.util.impl.JjwtCodec;
+import com.selimhorri.app.jwt.util.impl.LeanJwtCodec;
+
+@Configuration
+@EnableConfigurationProperties(JwtProperties.class)
+public class JwtConfig {
+	
+	@Bean
+	@ConditionalOnProperty(prefix = "app.jwt", name = "engine", havingValue = "lean", matchIfMissing = true)
+	public JwtCodec leanJwtCodec(final JwtKeyService jwtKeyService) {
+		return new LeanJwtCodec(jwtKeyService);
+	}
+	
+	@Bean
+	@ConditionalOnProperty(prefix = "app.jwt", name = "engine", havingValue = "jjwt")
+	public JwtCodec jjwtCodec(final JwtKeyService jwtKeyService) {
+		return new JjwtCodec(jwtKeyService);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,48 @@
+package com.selimhorri.app.config.jwt;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.jwt")
+public class JwtProperties {
+	
+	// lean or jjwt, the implementation behind JwtCodec
+	private String engine = "lean";
+	
+	// base64 HS256 secret, only used while no key directory is configured
+	private String secret = "secret";
+	
+	// <kid>.secret (base64 HS256), <kid>.key + <kid>.pub (PEM ES256), the newest signing key signs
+	private String keyDirectory;
+	
+	// pins the signing key instead of the newest one
+	private String signingKid;
+	
+	private Duration keyReloadInterval = Duration.ofMinutes(1);
+	
+	// access tokens carry the roles and are trusted until expiry unless revoked, keep them short
+	private Duration accessTokenTtl = Duration.ofMinutes(15);
+	private Duration refreshTokenTtl = Duration.ofDays(7);
+	
+	// sizing of the bloom filter in front of the revoked token ids, pruned as tokens expire
+	private int revocationCapacity = 100_000;
+	private double revocationFalsePositiveRate = 0.01;
+	private Duration revocationPruneInterval = Duration.ofMinutes(1);
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
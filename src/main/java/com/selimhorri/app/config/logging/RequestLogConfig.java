@@ -0,0 +1,22 @@
+package com.selimhorri.app.config.logging;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RequestLogProperties.class)
+public class RequestLogConfig {
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
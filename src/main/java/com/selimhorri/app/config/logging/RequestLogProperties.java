@@ -0,0 +1,27 @@
+package com.selimhorri.app.config.logging;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.request-log")
+public class RequestLogProperties {
+	
+	private boolean enabled = true;
+	private double successSampleRate = 0.01;
+	private Duration slowThreshold = Duration.ofSeconds(1);
+	
+}
+
+
+
+
+
+
+
+
+
+
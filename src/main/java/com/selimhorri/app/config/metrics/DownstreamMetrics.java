@@ -0,0 +1,86 @@
+package com.selimhorri.app.config.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Times calls to other services under one meter, tagged like http.server.requests so the two
+ * can be compared per route. Histograms and SLO buckets come from management.metrics.distribution.
+ * <p>
+ * The route is the pattern of the inbound request being served, NONE for calls made before a
+ * handler is chosen, such as the user lookup of the JWT filter, or outside of any request.
+ */
+@Component
+@RequiredArgsConstructor
+public class DownstreamMetrics {
+	
+	public static final String METER_NAME = "proxy.downstream.requests";
+	private static final String NO_ROUTE = "NONE";
+	private static final ThreadLocal<String> ROUTE = new ThreadLocal<>();
+	
+	private final MeterRegistry meterRegistry;
+	
+	public void record(final String service, final String method, final int status, final Throwable exception,
+			final long nanos) {
+		Timer.builder(METER_NAME)
+				.description("Calls from the proxy to downstream services")
+				.tag("route", Objects.requireNonNullElse(ROUTE.get(), NO_ROUTE))
+				.tag("service", service)
+				.tag("method", method)
+				.tag("status", exception == null ? String.valueOf(status) : "CLIENT_ERROR")
+				.tag("outcome", exception == null ? Outcome.forStatus(status).name() : Outcome.UNKNOWN.name())
+				.tag("exception", exception == null ? "None" : exception.getClass().getSimpleName())
+				.register(this.meterRegistry)
+				.record(nanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public static void bindRoute(final String route) {
+		ROUTE.set(route);
+	}
+	
+	public static void unbindRoute() {
+		ROUTE.remove();
+	}
+	
+	/**
+	 * Carries the current route over to the thread running the task.
+	 */
+	public static Runnable propagate(final Runnable task) {
+		final String route = ROUTE.get();
+		if (route == null)
+			return task;
+		return () -> {
+			final String previous = ROUTE.get();
+			ROUTE.set(route);
+			try {
+				task.run();
+			}
+			finally {
+				if (previous == null)
+					ROUTE.remove();
+				else
+					ROUTE.set(previous);
+			}
+		};
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
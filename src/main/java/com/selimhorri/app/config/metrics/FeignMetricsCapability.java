@@ -0,0 +1,56 @@
+package com.selimhorri.app.config.metrics;
+
+import java.io.IOException;
+
+import com.selimhorri.app.config.timing.ServerTiming;
+import com.selimhorri.app.config.timing.ServerTiming.Span;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Wraps the client of every Feign target, load balancing included, so each call is timed per method.
+ */
+@RequiredArgsConstructor
+public class FeignMetricsCapability implements Capability {
+	
+	private final DownstreamMetrics downstreamMetrics;
+	
+	@Override
+	public Client enrich(final Client client) {
+		return (request, options) -> {
+			final String service = request.requestTemplate().feignTarget() == null ? "unknown"
+					: request.requestTemplate().feignTarget().name();
+			final String method = request.requestTemplate().methodMetadata() == null ? request.httpMethod().name()
+					: request.requestTemplate().methodMetadata().configKey();
+			final long start = System.nanoTime();
+			try {
+				final Response response = client.execute(request, options);
+				this.downstreamMetrics.record(service, method, response.status(), null, System.nanoTime() - start);
+				return response;
+			}
+			catch (IOException | RuntimeException e) {
+				this.downstreamMetrics.record(service, method, 0, e, System.nanoTime() - start);
+				throw e;
+			}
+			finally {
+				ServerTiming.record(Span.UPSTREAM, System.nanoTime() - start);
+			}
+		};
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,35 @@
+package com.selimhorri.app.config.metrics;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import feign.Capability;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+	
+	@Bean
+	public Capability feignMetricsCapability(final DownstreamMetrics downstreamMetrics) {
+		return new FeignMetricsCapability(downstreamMetrics);
+	}
+	
+	@Override
+	public void addInterceptors(final InterceptorRegistry registry) {
+		registry.addInterceptor(new RouteBindingInterceptor());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,94 @@
+package com.selimhorri.app.config.metrics;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriTemplate;
+import org.springframework.web.util.UriTemplateHandler;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Times each call made through the load balanced RestTemplate. Server-Timing spans are left to the
+ * callers, which know whether a call is a user or an ownership lookup.
+ * Runs ahead of load balancing so the host is still the service name.
+ */
+@Component
+@RequiredArgsConstructor
+public class RestTemplateMetricsInterceptor implements ClientHttpRequestInterceptor {
+	
+	// ids in paths would make one time series per resource
+	private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+	// set while expanding, the interceptor runs right after on the same thread
+	private static final ThreadLocal<String> URI_TEMPLATE = new ThreadLocal<>();
+	
+	private final DownstreamMetrics downstreamMetrics;
+	
+	/**
+	 * Keeps the template each call was expanded from, so the method tag carries
+	 * {username} instead of one value per user.
+	 */
+	public UriTemplateHandler capturing(final UriTemplateHandler uriTemplateHandler) {
+		return new UriTemplateHandler() {
+			
+			@Override
+			public URI expand(final String uriTemplate, final Map<String, ?> uriVariables) {
+				URI_TEMPLATE.set(uriTemplate);
+				return uriTemplateHandler.expand(uriTemplate, uriVariables);
+			}
+			
+			@Override
+			public URI expand(final String uriTemplate, final Object... uriVariables) {
+				URI_TEMPLATE.set(uriTemplate);
+				return uriTemplateHandler.expand(uriTemplate, uriVariables);
+			}
+			
+		};
+	}
+	
+	@Override
+	public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+			final ClientHttpRequestExecution execution) throws IOException {
+		final String service = request.getURI().getHost();
+		final String method = request.getMethodValue() + " " + ID_SEGMENT.matcher(pathOf(request)).replaceAll("/{id}");
+		final long start = System.nanoTime();
+		try {
+			final ClientHttpResponse response = execution.execute(request, body);
+			this.downstreamMetrics.record(service, method, response.getRawStatusCode(), null, System.nanoTime() - start);
+			return response;
+		}
+		catch (IOException | RuntimeException e) {
+			this.downstreamMetrics.record(service, method, 0, e, System.nanoTime() - start);
+			throw e;
+		}
+	}
+	
+	private static String pathOf(final HttpRequest request) {
+		final String uriTemplate = URI_TEMPLATE.get();
+		URI_TEMPLATE.remove();
+		final String path = uriTemplate == null ? null : UriComponentsBuilder.fromUriString(uriTemplate).build().getPath();
+		// calls given a ready URI skip expansion, a template left by an earlier call must not be used for them
+		return path != null && new UriTemplate(path).matches(request.getURI().getPath()) ? path : request.getURI().getPath();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
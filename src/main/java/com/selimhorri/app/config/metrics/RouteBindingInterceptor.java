@@ -0,0 +1,41 @@
+package com.selimhorri.app.config.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Binds the matched route of the inbound request so downstream calls made while handling it are tagged with it.
+ */
+public class RouteBindingInterceptor implements HandlerInterceptor {
+	
+	@Override
+	public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+			final Object handler) {
+		final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		if (pattern != null)
+			DownstreamMetrics.bindRoute(pattern.toString());
+		return true;
+	}
+	
+	@Override
+	public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+			final Object handler, final Exception ex) {
+		DownstreamMetrics.unbindRoute();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
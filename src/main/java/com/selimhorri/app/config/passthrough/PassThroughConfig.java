@@ -0,0 +1,22 @@
+package com.selimhorri.app.config.passthrough;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PassThroughProperties.class)
+public class PassThroughConfig {
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
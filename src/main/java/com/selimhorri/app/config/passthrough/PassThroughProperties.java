@@ -0,0 +1,27 @@
+package com.selimhorri.app.config.passthrough;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.pass-through")
+public class PassThroughProperties {
+	
+	// see PassThroughRelay for the route names
+	private Set<String> routes = new HashSet<>();
+	
+}
+
+
+
+
+
+
+
+
+
+
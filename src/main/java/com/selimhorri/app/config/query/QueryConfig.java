@@ -0,0 +1,22 @@
+package com.selimhorri.app.config.query;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(QueryProperties.class)
+public class QueryConfig {
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,25 @@
+package com.selimhorri.app.config.query;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.query")
+public class QueryProperties {
+	
+	private int maxCost = 500;
+	private int maxDepth = 5;
+	private int maxIds = 50;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,17 +1,29 @@
 package com.selimhorri.app.config.template;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.config.compression.RestTemplateGzipInterceptor;
+import com.selimhorri.app.config.metrics.RestTemplateMetricsInterceptor;
+
 @Configuration
 public class TemplateConfig {
 	
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean() {
-		return new RestTemplate();
+	public RestTemplate restTemplateBean(final RestTemplateMetricsInterceptor restTemplateMetricsInterceptor,
+			final ObjectProvider<RestTemplateGzipInterceptor> restTemplateGzipInterceptor,
+			final HttpMessageConverters httpMessageConverters) {
+		// the shared converters, and so the tuned ObjectMapper, instead of a default one per template
+		final RestTemplate restTemplate = new RestTemplate(httpMessageConverters.getConverters());
+		restTemplate.setUriTemplateHandler(restTemplateMetricsInterceptor.capturing(restTemplate.getUriTemplateHandler()));
+		restTemplate.getInterceptors().add(restTemplateMetricsInterceptor);
+		restTemplateGzipInterceptor.ifAvailable(restTemplate.getInterceptors()::add);
+		return restTemplate;
 	}
 	
 	
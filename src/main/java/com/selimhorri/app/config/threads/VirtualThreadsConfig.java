@@ -0,0 +1,56 @@
+package com.selimhorri.app.config.threads;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import com.selimhorri.app.config.metrics.DownstreamMetrics;
+import com.selimhorri.app.config.timing.ServerTiming;
+
+/**
+ * A request blocked on AuthUtil, the credential lookup or a Feign call parks its virtual thread
+ * instead of holding one of Tomcat's 200 workers, so concurrency is bounded by the connection
+ * pools rather than by threads.
+ */
+@Configuration
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+@ConditionalOnProperty(prefix = "app.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+	
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+		return protocolHandler -> protocolHandler.setExecutor(
+				Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0L).factory()));
+	}
+	
+	/**
+	 * Replaces the bounded aggregation pool, a branch waiting on upstream costs no platform thread.
+	 */
+	@Bean
+	public AsyncTaskExecutor aggregationExecutor() {
+		final TaskExecutorAdapter executor = new TaskExecutorAdapter(
+				Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("aggregation-", 0L).factory()));
+		executor.setTaskDecorator(task -> ServerTiming.propagate(DownstreamMetrics.propagate(task)));
+		return executor;
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
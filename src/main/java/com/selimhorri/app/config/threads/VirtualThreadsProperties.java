@@ -0,0 +1,24 @@
+package com.selimhorri.app.config.threads;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.virtual-threads")
+public class VirtualThreadsProperties {
+	
+	// requests and aggregation branches on virtual threads instead of the bounded pools
+	private boolean enabled;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,145 @@
+package com.selimhorri.app.config.timing;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per request breakdown of where the proxy spends its time, reported as a Server-Timing header.
+ * <p>
+ * Bound to the request thread only for sampled requests, everywhere else the static recording
+ * methods find nothing bound and return without reading the clock or allocating.
+ */
+public final class ServerTiming {
+	
+	public enum Span {
+		
+		JWT("jwt", "token parse and validation"),
+		USER("user", "user lookup"),
+		OWNER("owner", "ownership lookups"),
+		UPSTREAM("upstream", "Feign calls"),
+		SERIALIZE("serialize", "response serialization");
+		
+		private final String metric;
+		private final String description;
+		
+		Span(final String metric, final String description) {
+			this.metric = metric;
+			this.description = description;
+		}
+		
+	}
+	
+	private static final Span[] SPANS = Span.values();
+	private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+	
+	private final long startedAt = System.nanoTime();
+	// branches of a fan-out record from other threads
+	private final AtomicLongArray nanos = new AtomicLongArray(SPANS.length);
+	private final AtomicIntegerArray counts = new AtomicIntegerArray(SPANS.length);
+	private volatile long serializationStartedAt;
+	
+	private ServerTiming() {
+	}
+	
+	public static ServerTiming begin() {
+		final ServerTiming serverTiming = new ServerTiming();
+		CURRENT.set(serverTiming);
+		return serverTiming;
+	}
+	
+	public static void end() {
+		CURRENT.remove();
+	}
+	
+	/**
+	 * Start of a span, 0 when the request isn't sampled.
+	 */
+	public static long start() {
+		return CURRENT.get() == null ? 0L : System.nanoTime();
+	}
+	
+	public static void stop(final Span span, final long start) {
+		if (start != 0L)
+			record(span, System.nanoTime() - start);
+	}
+	
+	public static void record(final Span span, final long nanos) {
+		final ServerTiming serverTiming = CURRENT.get();
+		if (serverTiming != null) {
+			serverTiming.nanos.addAndGet(span.ordinal(), nanos);
+			serverTiming.counts.incrementAndGet(span.ordinal());
+		}
+	}
+	
+	public static void markSerialization() {
+		final ServerTiming serverTiming = CURRENT.get();
+		if (serverTiming != null)
+			serverTiming.serializationStartedAt = System.nanoTime();
+	}
+	
+	/**
+	 * Carries the current request's timing over to the thread running the task.
+	 */
+	public static Runnable propagate(final Runnable task) {
+		final ServerTiming serverTiming = CURRENT.get();
+		if (serverTiming == null)
+			return task;
+		return () -> {
+			// with caller runs the task may execute on the request thread itself
+			final ServerTiming previous = CURRENT.get();
+			CURRENT.set(serverTiming);
+			try {
+				task.run();
+			}
+			finally {
+				if (previous == null)
+					CURRENT.remove();
+				else
+					CURRENT.set(previous);
+			}
+		};
+	}
+	
+	/**
+	 * Closes the serialization span if one was opened and renders the header value.
+	 */
+	public String toHeaderValue() {
+		final long now = System.nanoTime();
+		if (this.serializationStartedAt != 0L) {
+			this.nanos.addAndGet(Span.SERIALIZE.ordinal(), now - this.serializationStartedAt);
+			this.counts.incrementAndGet(Span.SERIALIZE.ordinal());
+			this.serializationStartedAt = 0L;
+		}
+		final StringBuilder header = new StringBuilder(160);
+		for (final Span span : SPANS) {
+			final int count = this.counts.get(span.ordinal());
+			if (count == 0)
+				continue;
+			append(header, span.metric, this.nanos.get(span.ordinal()));
+			header.append(";desc=\"").append(span.description);
+			if (count > 1)
+				header.append(" x").append(count);
+			header.append("\", ");
+		}
+		append(header, "total", now - this.startedAt);
+		return header.toString();
+	}
+	
+	private static void append(final StringBuilder header, final String metric, final long nanos) {
+		header.append(metric).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,22 @@
+package com.selimhorri.app.config.timing;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ServerTimingProperties.class)
+public class ServerTimingConfig {
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
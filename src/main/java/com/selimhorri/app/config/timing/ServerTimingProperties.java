@@ -0,0 +1,24 @@
+package com.selimhorri.app.config.timing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.server-timing")
+public class ServerTimingProperties {
+	
+	private boolean enabled = false;
+	private double sampleRate = 0.01;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,42 @@
+package com.selimhorri.app.config.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Opens the serialization span right before the message converter writes the body.
+ */
+@ControllerAdvice
+public class ServerTimingResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+	
+	@Override
+	public boolean supports(final MethodParameter returnType, final Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+	
+	@Override
+	public Object beforeBodyWrite(final Object body, final MethodParameter returnType, final MediaType selectedContentType,
+			final Class<? extends HttpMessageConverter<?>> selectedConverterType, final ServerHttpRequest request,
+			final ServerHttpResponse response) {
+		ServerTiming.markSerialization();
+		return body;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
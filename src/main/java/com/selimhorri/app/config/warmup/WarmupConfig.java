@@ -0,0 +1,22 @@
+package com.selimhorri.app.config.warmup;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,28 @@
+package com.selimhorri.app.config.warmup;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmupProperties {
+	
+	private boolean enabled = true;
+	private Duration timeout = Duration.ofSeconds(60);
+	private int iterations = 200;
+	private int maxProducts = 100;
+	
+}
+
+
+
+
+
+
+
+
+
+
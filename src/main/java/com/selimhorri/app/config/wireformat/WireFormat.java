@@ -0,0 +1,57 @@
+package com.selimhorri.app.config.wireformat;
+
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Binary encodings of the same Jackson model a client can ask for through Accept, JSON stays the default.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum WireFormat {
+	
+	CBOR(MediaType.APPLICATION_CBOR),
+	SMILE(new MediaType("application", "x-jackson-smile"));
+	
+	private final MediaType mediaType;
+	
+	/**
+	 * True when the Accept header explicitly names one of the binary formats.
+	 */
+	public static boolean isRequested(final String accept) {
+		if (!StringUtils.hasText(accept))
+			return false;
+		final List<MediaType> acceptable;
+		try {
+			acceptable = MediaType.parseMediaTypes(accept);
+		}
+		catch (IllegalArgumentException e) {
+			return false;
+		}
+		for (final MediaType mediaType : acceptable)
+			if (mediaType.getQualityValue() > 0.0 && !mediaType.isWildcardSubtype())
+				for (final WireFormat format : values())
+					if (format.mediaType.isCompatibleWith(mediaType))
+						return true;
+		return false;
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
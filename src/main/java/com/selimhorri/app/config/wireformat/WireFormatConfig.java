@@ -0,0 +1,54 @@
+package com.selimhorri.app.config.wireformat;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Adds the binary converters to MVC only, after the JSON one so a wildcard or missing Accept still
+ * gets JSON. Feign and the RestTemplate keep talking JSON to the upstream services.
+ */
+@Configuration
+@EnableConfigurationProperties(WireFormatProperties.class)
+@RequiredArgsConstructor
+public class WireFormatConfig implements WebMvcConfigurer {
+	
+	private final WireFormatProperties wireFormatProperties;
+	private final Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder;
+	
+	@Override
+	public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+		// the builder carries Boot's settings and modules (jsr310, Blackbird), only the factory differs
+		if (this.wireFormatProperties.getFormats().contains(WireFormat.CBOR))
+			converters.add(new MappingJackson2CborHttpMessageConverter(
+					this.jackson2ObjectMapperBuilder.factory(new CBORFactory()).build()));
+		if (this.wireFormatProperties.getFormats().contains(WireFormat.SMILE))
+			converters.add(new MappingJackson2SmileHttpMessageConverter(
+					this.jackson2ObjectMapperBuilder.factory(new SmileFactory()).build()));
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,27 @@
+package com.selimhorri.app.config.wireformat;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.wire-format")
+public class WireFormatProperties {
+	
+	// binary formats offered next to JSON, empty serves JSON only
+	private Set<WireFormat> formats = EnumSet.noneOf(WireFormat.class);
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -11,6 +11,11 @@ public abstract class AppConstant {
 	public static final String ZONED_DATE_TIME_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
 	public static final String INSTANT_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
 	
+	/**
+	 * Ids end up in upstream paths, anything but a plain number could reach another endpoint.
+	 */
+	public static final String ID_PATTERN = "\\d{1,9}";
+	
 	@NoArgsConstructor(access = AccessLevel.PRIVATE)
 	public abstract class DiscoveredDomainsApi {
 		
@@ -12,8 +12,10 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.exception.wrapper.CredentialNotFoundException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.exception.wrapper.QueryRejectedException;
 import com.selimhorri.app.exception.wrapper.UnauthorizedException;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
 import com.selimhorri.app.exception.wrapper.VerificationTokenNotFoundException;
@@ -36,7 +38,7 @@ public class ApiExceptionHandler {
 	})
 	public <T extends FeignException> ResponseEntity<ExceptionMsg> handleProxyException(final T e) {
 
-		log.info("**ApiExceptionHandler controller, handle feign proxy exception*\n");
+		log.debug("**ApiExceptionHandler controller, handle feign proxy exception*\n");
 		final var badRequest = HttpStatus.BAD_REQUEST;
 
 		return new ResponseEntity<>(
@@ -55,7 +57,7 @@ public class ApiExceptionHandler {
 	})
 	public <T extends BindException> ResponseEntity<ExceptionMsg> handleValidationException(final T e) {
 
-		log.info("**ApiExceptionHandler controller, handle validation exception*\n");
+		log.debug("**ApiExceptionHandler controller, handle validation exception*\n");
 		final var badRequest = HttpStatus.BAD_REQUEST;
 
 		return new ResponseEntity<>(
@@ -73,7 +75,7 @@ public class ApiExceptionHandler {
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleUnauthorizedRequestException(final T e) {
 
-		log.info("**ApiExceptionHandler controller, handle API request*\n");
+		log.debug("**ApiExceptionHandler controller, handle API request*\n");
 		final var badRequest = HttpStatus.UNAUTHORIZED;
 
 		return new ResponseEntity<>(
@@ -91,11 +93,13 @@ public class ApiExceptionHandler {
 			CredentialNotFoundException.class,
 			VerificationTokenNotFoundException.class,
 			FavouriteNotFoundException.class,
+			CategoryNotFoundException.class,
+			QueryRejectedException.class,
 			IllegalStateException.class,
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
 
-		log.info("**ApiExceptionHandler controller, handle API request*\n");
+		log.debug("**ApiExceptionHandler controller, handle API request*\n");
 		final var badRequest = HttpStatus.BAD_REQUEST;
 
 		return new ResponseEntity<>(
@@ -0,0 +1,35 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class CategoryNotFoundException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public CategoryNotFoundException() {
+		super();
+	}
+	
+	public CategoryNotFoundException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public CategoryNotFoundException(String message) {
+		super(message);
+	}
+	
+	public CategoryNotFoundException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
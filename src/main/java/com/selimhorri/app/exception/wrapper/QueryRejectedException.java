@@ -0,0 +1,35 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class QueryRejectedException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public QueryRejectedException() {
+		super();
+	}
+	
+	public QueryRejectedException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public QueryRejectedException(String message) {
+		super(message);
+	}
+	
+	public QueryRejectedException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,56 @@
+package com.selimhorri.app.jwt.model;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The claims this service issues and reads, times in epoch seconds as in the token, 0 when absent.
+ * Tokens issued before refresh tokens carry neither id, type nor roles.
+ */
+@Value
+@Builder(toBuilder = true)
+public class JwtClaims {
+	
+	public static final String ACCESS = "access";
+	public static final String REFRESH = "refresh";
+	
+	String tokenId;
+	String type;
+	// on refresh tokens, id of the access token issued with it so both can be revoked together
+	String accessTokenId;
+	String subject;
+	String userId;
+	List<String> roles;
+	long issuedAt;
+	long expiration;
+	
+	public Date getExpirationDate() {
+		return this.expiration == 0L ? null : new Date(this.expiration * 1000L);
+	}
+	
+	public boolean isExpired(final long now) {
+		return this.expiration != 0L && now > this.expiration * 1000L;
+	}
+	
+	public boolean isAccessToken() {
+		return ACCESS.equals(this.type);
+	}
+	
+	public boolean isRefreshToken() {
+		return REFRESH.equals(this.type);
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,35 @@
+package com.selimhorri.app.jwt.model;
+
+import java.security.Key;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.Value;
+
+/**
+ * A preloaded key, the signing key is null for keys only trusted to verify (public keys of a
+ * key pair whose private part lives elsewhere).
+ */
+@Value
+public class JwtKey {
+	
+	String kid;
+	SignatureAlgorithm algorithm;
+	Key signingKey;
+	Key verificationKey;
+	long lastModified;
+	
+	public boolean canSign() {
+		return this.signingKey != null;
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
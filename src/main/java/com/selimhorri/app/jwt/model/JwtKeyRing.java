@@ -0,0 +1,73 @@
+package com.selimhorri.app.jwt.model;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable set of the keys trusted at one point in time, swapped as a whole on rotation so a
+ * verification never sees half of a reload.
+ */
+public final class JwtKeyRing {
+	
+	private final Map<String, JwtKey> keys;
+	private final JwtKey signingKey;
+	private final JwtKey unnamedKey;
+	
+	private JwtKeyRing(final Map<String, JwtKey> keys, final JwtKey signingKey, final JwtKey unnamedKey) {
+		this.keys = keys;
+		this.signingKey = signingKey;
+		this.unnamedKey = unnamedKey;
+	}
+	
+	/**
+	 * The pinned kid signs when given, otherwise the most recently modified key able to sign.
+	 */
+	public static JwtKeyRing of(final Collection<JwtKey> keys, final String signingKid) {
+		final Map<String, JwtKey> byKid = keys.stream()
+				.collect(Collectors.toUnmodifiableMap(JwtKey::getKid, Function.identity()));
+		final boolean pinned = signingKid != null && !signingKid.isBlank();
+		final JwtKey signingKey = pinned ? byKid.get(signingKid)
+				: keys.stream()
+						.filter(JwtKey::canSign)
+						.max(Comparator.comparingLong(JwtKey::getLastModified).thenComparing(JwtKey::getKid))
+						.orElse(null);
+		if (signingKey == null || !signingKey.canSign())
+			throw new IllegalStateException("No JWT signing key" + (pinned ? " with kid " + signingKid : ""));
+		return new JwtKeyRing(byKid, signingKey, null);
+	}
+	
+	/**
+	 * Single key which also verifies tokens issued before kids were set.
+	 */
+	public static JwtKeyRing legacy(final JwtKey key) {
+		return new JwtKeyRing(Map.of(key.getKid(), key), key, key);
+	}
+	
+	public JwtKey find(final String kid) {
+		return kid == null ? this.unnamedKey : this.keys.get(kid);
+	}
+	
+	public JwtKey getSigningKey() {
+		return this.signingKey;
+	}
+	
+	public int size() {
+		return this.keys.size();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
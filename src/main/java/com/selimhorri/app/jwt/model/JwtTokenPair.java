@@ -0,0 +1,21 @@
+package com.selimhorri.app.jwt.model;
+
+import lombok.Value;
+
+@Value
+public class JwtTokenPair {
+	
+	String accessToken;
+	String refreshToken;
+	
+}
+
+
+
+
+
+
+
+
+
+
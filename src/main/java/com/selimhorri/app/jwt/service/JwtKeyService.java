@@ -0,0 +1,21 @@
+package com.selimhorri.app.jwt.service;
+
+import com.selimhorri.app.jwt.model.JwtKey;
+
+public interface JwtKeyService {
+	
+	JwtKey getSigningKey();
+	JwtKey findKey(final String kid);
+	void reload();
+	
+}
+
+
+
+
+
+
+
+
+
+
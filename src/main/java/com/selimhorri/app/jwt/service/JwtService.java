@@ -5,6 +5,9 @@ import java.util.function.Function;
 
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.selimhorri.app.jwt.model.JwtClaims;
+import com.selimhorri.app.jwt.model.JwtTokenPair;
+
 import io.jsonwebtoken.Claims;
 
 public interface JwtService {
@@ -13,8 +16,11 @@ public interface JwtService {
 	String extractUserId(final String token);
 	Date extractExpiration(final String token);
 	<T> T extractClaims(final String token, final Function<Claims, T> claimsResolver);
+	JwtClaims extractAllClaims(final String token);
 	String generateToken(final UserDetails userDetails, final String userId);
+	JwtTokenPair generateTokenPair(final UserDetails userDetails, final String userId);
 	Boolean validateToken(final String token, final UserDetails userDetails);
+	Boolean validateToken(final JwtClaims claims, final UserDetails userDetails);
 	
 }
 
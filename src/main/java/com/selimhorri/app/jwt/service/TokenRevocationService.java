@@ -0,0 +1,19 @@
+package com.selimhorri.app.jwt.service;
+
+public interface TokenRevocationService {
+	
+	boolean revoke(final String tokenId, final long expiration);
+	boolean isRevoked(final String tokenId);
+	void prune();
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,186 @@
+package com.selimhorri.app.jwt.service.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.interfaces.ECKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.config.jwt.JwtProperties;
+import com.selimhorri.app.jwt.model.JwtKey;
+import com.selimhorri.app.jwt.model.JwtKeyRing;
+import com.selimhorri.app.jwt.service.JwtKeyService;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class JwtKeyServiceImpl implements JwtKeyService {
+	
+	private static final String LEGACY_KID = "default";
+	private static final String SECRET_SUFFIX = ".secret";
+	private static final String PRIVATE_KEY_SUFFIX = ".key";
+	private static final String PUBLIC_KEY_SUFFIX = ".pub";
+	private static final int MIN_SECRET_LENGTH = 32;
+	
+	private final JwtProperties jwtProperties;
+	
+	private volatile JwtKeyRing keyRing;
+	private volatile String fingerprint;
+	
+	@Override
+	public JwtKey getSigningKey() {
+		return this.getKeyRing().getSigningKey();
+	}
+	
+	@Override
+	public JwtKey findKey(final String kid) {
+		return this.getKeyRing().find(kid);
+	}
+	
+	/**
+	 * Picks up keys added to or removed from the key directory, a directory caught mid-rotation
+	 * keeps the previous ring until the next run.
+	 */
+	@Override
+	@Scheduled(fixedDelayString = "${app.jwt.key-reload-interval:PT1M}")
+	public void reload() {
+		try {
+			this.load();
+		}
+		catch (IOException | GeneralSecurityException | RuntimeException e) {
+			log.warn("JWT key reload failed: {}", e.getMessage());
+		}
+	}
+	
+	private JwtKeyRing getKeyRing() {
+		if (this.keyRing == null) {
+			try {
+				this.load();
+			}
+			catch (IOException | GeneralSecurityException e) {
+				throw new IllegalStateException("Unable to load JWT keys: " + e.getMessage(), e);
+			}
+		}
+		return this.keyRing;
+	}
+	
+	private synchronized void load() throws IOException, GeneralSecurityException {
+		final String keyDirectory = this.jwtProperties.getKeyDirectory();
+		if (keyDirectory == null || keyDirectory.isBlank()) {
+			if (this.keyRing == null) {
+				final Key secret = new SecretKeySpec(TextCodec.BASE64.decode(this.jwtProperties.getSecret()),
+						SignatureAlgorithm.HS256.getJcaName());
+				this.keyRing = JwtKeyRing.legacy(new JwtKey(LEGACY_KID, SignatureAlgorithm.HS256, secret, secret, 0L));
+			}
+			return;
+		}
+		
+		final Path directory = Paths.get(keyDirectory);
+		final List<Path> files;
+		try (Stream<Path> list = Files.list(directory)) {
+			files = list.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+		final String fingerprint = fingerprint(files);
+		if (fingerprint.equals(this.fingerprint))
+			return;
+		
+		final List<JwtKey> keys = new ArrayList<>();
+		for (final Path file : files) {
+			final String name = file.getFileName().toString();
+			if (name.endsWith(SECRET_SUFFIX))
+				keys.add(readSecret(kid(name, SECRET_SUFFIX), file));
+			else if (name.endsWith(PUBLIC_KEY_SUFFIX))
+				keys.add(readKeyPair(kid(name, PUBLIC_KEY_SUFFIX), file, directory));
+			else if (name.endsWith(PRIVATE_KEY_SUFFIX)
+					&& !Files.exists(directory.resolve(kid(name, PRIVATE_KEY_SUFFIX) + PUBLIC_KEY_SUFFIX)))
+				log.warn("Ignoring JWT key {} without its {} public key", name, PUBLIC_KEY_SUFFIX);
+		}
+		final JwtKeyRing keyRing = JwtKeyRing.of(keys, this.jwtProperties.getSigningKid());
+		this.keyRing = keyRing;
+		this.fingerprint = fingerprint;
+		log.info("Loaded {} JWT keys, signing with kid {}", keyRing.size(), keyRing.getSigningKey().getKid());
+	}
+	
+	private static JwtKey readSecret(final String kid, final Path file) throws IOException {
+		final byte[] secret = Base64.getMimeDecoder().decode(Files.readString(file).trim());
+		if (secret.length < MIN_SECRET_LENGTH)
+			throw new IllegalStateException("JWT secret " + kid + " is shorter than " + MIN_SECRET_LENGTH + " bytes");
+		final Key key = new SecretKeySpec(secret, SignatureAlgorithm.HS256.getJcaName());
+		return new JwtKey(kid, SignatureAlgorithm.HS256, key, key, Files.getLastModifiedTime(file).toMillis());
+	}
+	
+	/**
+	 * ES256 public key, with its private key when this instance also signs with it.
+	 */
+	private static JwtKey readKeyPair(final String kid, final Path publicKeyFile, final Path directory)
+			throws IOException, GeneralSecurityException {
+		final KeyFactory keyFactory = KeyFactory.getInstance("EC");
+		final Key publicKey = requireP256(kid, keyFactory.generatePublic(new X509EncodedKeySpec(readPem(publicKeyFile))));
+		final Path privateKeyFile = directory.resolve(kid + PRIVATE_KEY_SUFFIX);
+		if (!Files.exists(privateKeyFile))
+			return new JwtKey(kid, SignatureAlgorithm.ES256, null, publicKey,
+					Files.getLastModifiedTime(publicKeyFile).toMillis());
+		final Key privateKey = requireP256(kid, keyFactory.generatePrivate(new PKCS8EncodedKeySpec(readPem(privateKeyFile))));
+		return new JwtKey(kid, SignatureAlgorithm.ES256, privateKey, publicKey,
+				Files.getLastModifiedTime(privateKeyFile).toMillis());
+	}
+	
+	private static Key requireP256(final String kid, final Key key) {
+		if (((ECKey) key).getParams().getCurve().getField().getFieldSize() != 256)
+			throw new IllegalStateException("JWT key " + kid + " is not on the P-256 curve");
+		return key;
+	}
+	
+	private static byte[] readPem(final Path file) throws IOException {
+		return Base64.getMimeDecoder().decode(Files.readAllLines(file).stream()
+				.filter(line -> !line.startsWith("-----"))
+				.collect(Collectors.joining()));
+	}
+	
+	private static String kid(final String fileName, final String suffix) {
+		return fileName.substring(0, fileName.length() - suffix.length());
+	}
+	
+	private static String fingerprint(final List<Path> files) throws IOException {
+		final StringBuilder fingerprint = new StringBuilder();
+		for (final Path file : files)
+			fingerprint.append(file.getFileName())
+					.append(':').append(Files.getLastModifiedTime(file).toMillis())
+					.append(':').append(Files.size(file))
+					.append('\n');
+		return fingerprint.toString();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
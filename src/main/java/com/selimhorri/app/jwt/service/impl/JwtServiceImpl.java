@@ -6,6 +6,8 @@ import java.util.function.Function;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.jwt.model.JwtClaims;
+import com.selimhorri.app.jwt.model.JwtTokenPair;
 import com.selimhorri.app.jwt.service.JwtService;
 import com.selimhorri.app.jwt.util.JwtUtil;
 
@@ -22,33 +24,48 @@ public class JwtServiceImpl implements JwtService {
 	
 	@Override
 	public String extractUsername(final String token) {
-		log.info("**String, jwt service extract username from given token!*");
+		log.debug("**String, jwt service extract username from given token!*");
 		return this.jwtUtil.extractUsername(token);
 	}
 	
 	@Override
 	public Date extractExpiration(final String token) {
-		log.info("**Date, jwt service extract expiration from given token!*");
+		log.debug("**Date, jwt service extract expiration from given token!*");
 		return this.jwtUtil.extractExpiration(token);
 	}
 	
 	@Override
 	public <T> T extractClaims(final String token, final Function<Claims, T> claimsResolver) {
-		log.info("**T, jwt service extract claims from given token and claimResolver Function!*");
+		log.debug("**T, jwt service extract claims from given token and claimResolver Function!*");
 		return this.jwtUtil.extractClaims(token, claimsResolver);
 	}
 	
+	@Override
+	public JwtClaims extractAllClaims(final String token) {
+		return this.jwtUtil.extractAllClaims(token);
+	}
+	
 	@Override
 	public String generateToken(final UserDetails userDetails, final String userId) {
-		log.info("**String, jwt service generate token from given userDetails!*");
+		log.debug("**String, jwt service generate token from given userDetails!*");
 		return this.jwtUtil.generateToken(userDetails, userId);
 	}
 	
+	@Override
+	public JwtTokenPair generateTokenPair(final UserDetails userDetails, final String userId) {
+		return this.jwtUtil.generateTokenPair(userDetails, userId);
+	}
+	
 	@Override
 	public Boolean validateToken(final String token, final UserDetails userDetails) {
-		log.info("**Boolean, jwt service validate token from given token and userDetails!*");
+		log.debug("**Boolean, jwt service validate token from given token and userDetails!*");
 		return this.jwtUtil.validateToken(token, userDetails);
 	}
+	
+	@Override
+	public Boolean validateToken(final JwtClaims claims, final UserDetails userDetails) {
+		return this.jwtUtil.validateToken(claims, userDetails);
+	}
 
 	@Override
 	public String extractUserId(String token) {
@@ -0,0 +1,83 @@
+package com.selimhorri.app.jwt.service.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.config.jwt.JwtProperties;
+import com.selimhorri.app.jwt.service.TokenRevocationService;
+import com.selimhorri.app.jwt.util.TokenBloomFilter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revoked token ids of this instance, kept until the token would have expired anyway. Lookups
+ * are lock free, revocations and the rebuild after pruning share a lock so no id revoked during
+ * a rebuild is missing from the new filter.
+ */
+@Service
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+	
+	private final JwtProperties jwtProperties;
+	private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+	
+	private volatile TokenBloomFilter filter;
+	
+	public TokenRevocationServiceImpl(final JwtProperties jwtProperties) {
+		this.jwtProperties = jwtProperties;
+		this.filter = this.newFilter();
+	}
+	
+	/**
+	 * Returns false when the id was already revoked, which makes revoking a refresh token also
+	 * the check that it is used only once.
+	 */
+	@Override
+	public synchronized boolean revoke(final String tokenId, final long expiration) {
+		if (tokenId == null || this.revoked.putIfAbsent(tokenId, expiration) != null)
+			return false;
+		this.filter.add(tokenId);
+		return true;
+	}
+	
+	@Override
+	public boolean isRevoked(final String tokenId) {
+		return tokenId != null && this.filter.mightContain(tokenId) && this.revoked.containsKey(tokenId);
+	}
+	
+	/**
+	 * Drops ids of expired tokens, bloom filters cannot remove so the filter is rebuilt from what is left.
+	 */
+	@Override
+	@Scheduled(fixedDelayString = "${app.jwt.revocation-prune-interval:PT1M}")
+	public synchronized void prune() {
+		final long now = System.currentTimeMillis() / 1000L;
+		if (!this.revoked.values().removeIf(expiration -> expiration < now))
+			return;
+		final TokenBloomFilter filter = this.newFilter();
+		this.revoked.keySet().forEach(filter::add);
+		this.filter = filter;
+		log.debug("Revocation list pruned to {} token ids", this.revoked.size());
+	}
+	
+	private TokenBloomFilter newFilter() {
+		return TokenBloomFilter.create(this.jwtProperties.getRevocationCapacity(),
+				this.jwtProperties.getRevocationFalsePositiveRate());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
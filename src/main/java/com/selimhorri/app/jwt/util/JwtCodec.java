@@ -0,0 +1,24 @@
+package com.selimhorri.app.jwt.util;
+
+import com.selimhorri.app.jwt.model.JwtClaims;
+
+/**
+ * Token encoding and verification, both implementations throw the jjwt exception types so
+ * callers do not depend on the engine.
+ */
+public interface JwtCodec {
+	
+	String encode(final JwtClaims claims);
+	JwtClaims decode(final String token);
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -5,6 +5,9 @@ import java.util.function.Function;
 
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.selimhorri.app.jwt.model.JwtClaims;
+import com.selimhorri.app.jwt.model.JwtTokenPair;
+
 import io.jsonwebtoken.Claims;
 
 public interface JwtUtil {
@@ -16,8 +19,14 @@ public interface JwtUtil {
 
 	<T> T extractClaims(final String token, final Function<Claims, T> claimsResolver);
 
+	JwtClaims extractAllClaims(final String token);
+
 	String generateToken(final UserDetails userDetails, final String userId);
 
+	JwtTokenPair generateTokenPair(final UserDetails userDetails, final String userId);
+
 	Boolean validateToken(final String token, final UserDetails userDetails);
 
+	Boolean validateToken(final JwtClaims claims, final UserDetails userDetails);
+
 }
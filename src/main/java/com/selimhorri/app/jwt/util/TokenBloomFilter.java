@@ -0,0 +1,81 @@
+package com.selimhorri.app.jwt.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over token ids, a miss proves the id was never added so most lookups end here
+ * without touching the exact set. Indexes come from one 64-bit mix of the id split in two
+ * hashes (Kirsch and Mitzenmacher), bits are set with CAS so adds and reads need no lock.
+ */
+public final class TokenBloomFilter {
+	
+	private final AtomicLongArray words;
+	private final long bits;
+	private final int hashes;
+	
+	private TokenBloomFilter(final long bits, final int hashes) {
+		this.words = new AtomicLongArray((int) ((bits + 63L) >>> 6));
+		this.bits = bits;
+		this.hashes = hashes;
+	}
+	
+	/**
+	 * Standard sizing, m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 hashes.
+	 */
+	public static TokenBloomFilter create(final int capacity, final double falsePositiveRate) {
+		final int n = Math.max(1, capacity);
+		final long bits = Math.max(64L, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+		final int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+		return new TokenBloomFilter(bits, hashes);
+	}
+	
+	public void add(final String tokenId) {
+		final long hash = mix(tokenId.hashCode());
+		final int h1 = (int) hash;
+		final int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < this.hashes; i++) {
+			final long bit = Integer.toUnsignedLong(h1 + i * h2) % this.bits;
+			final int word = (int) (bit >>> 6);
+			final long mask = 1L << bit;
+			long current;
+			while (((current = this.words.get(word)) & mask) == 0L
+					&& !this.words.compareAndSet(word, current, current | mask));
+		}
+	}
+	
+	public boolean mightContain(final String tokenId) {
+		final long hash = mix(tokenId.hashCode());
+		final int h1 = (int) hash;
+		final int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < this.hashes; i++) {
+			final long bit = Integer.toUnsignedLong(h1 + i * h2) % this.bits;
+			if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0L)
+				return false;
+		}
+		return true;
+	}
+	
+	// murmur3 fmix64
+	private static long mix(final long value) {
+		long h = value;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
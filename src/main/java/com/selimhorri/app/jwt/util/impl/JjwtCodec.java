@@ -0,0 +1,95 @@
+package com.selimhorri.app.jwt.util.impl;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.selimhorri.app.jwt.model.JwtClaims;
+import com.selimhorri.app.jwt.model.JwtKey;
+import com.selimhorri.app.jwt.service.JwtKeyService;
+import com.selimhorri.app.jwt.util.JwtCodec;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class JjwtCodec implements JwtCodec {
+	
+	private static final String USER_ID = "userId";
+	private static final String TYPE = "type";
+	private static final String ACCESS_TOKEN_ID = "ati";
+	private static final String ROLES = "roles";
+	
+	private final JwtKeyService jwtKeyService;
+	
+	/**
+	 * Looks the verification key up by the kid header, the algorithm has to be the one the key
+	 * was issued for so an HS256 header cannot be checked against a public key.
+	 */
+	private final SigningKeyResolver signingKeyResolver = new SigningKeyResolverAdapter() {
+		
+		@Override
+		public Key resolveSigningKey(final JwsHeader header, final Claims claims) {
+			final JwtKey key = jwtKeyService.findKey(header.getKeyId());
+			if (key == null || !key.getAlgorithm().getValue().equals(header.getAlgorithm()))
+				throw new SignatureException("Unknown JWT signing key: " + header.getKeyId());
+			return key.getVerificationKey();
+		}
+		
+	};
+	
+	@Override
+	public String encode(final JwtClaims claims) {
+		final JwtKey key = this.jwtKeyService.getSigningKey();
+		return Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, key.getKid())
+				.setId(claims.getTokenId())
+				.claim(TYPE, claims.getType())
+				.claim(ACCESS_TOKEN_ID, claims.getAccessTokenId())
+				.claim(ROLES, claims.getRoles())
+				.claim(USER_ID, claims.getUserId())
+				.setSubject(claims.getSubject())
+				.setIssuedAt(new Date(claims.getIssuedAt() * 1000L))
+				.setExpiration(claims.getExpirationDate())
+				.signWith(key.getAlgorithm(), key.getSigningKey())
+				.compact();
+	}
+	
+	@Override
+	public JwtClaims decode(final String token) {
+		final Claims claims = Jwts.parser()
+				.setSigningKeyResolver(this.signingKeyResolver)
+				.parseClaimsJws(token)
+				.getBody();
+		final List<?> roles = claims.get(ROLES, List.class);
+		return JwtClaims.builder()
+				.tokenId(claims.getId())
+				.type(claims.get(TYPE, String.class))
+				.accessTokenId(claims.get(ACCESS_TOKEN_ID, String.class))
+				.subject(claims.getSubject())
+				.userId(claims.get(USER_ID, String.class))
+				.roles(roles == null ? null : roles.stream().map(String::valueOf).collect(Collectors.toList()))
+				.issuedAt(claims.getIssuedAt() == null ? 0L : claims.getIssuedAt().getTime() / 1000L)
+				.expiration(claims.getExpiration() == null ? 0L : claims.getExpiration().getTime() / 1000L)
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,73 +1,109 @@
 package com.selimhorri.app.jwt.util.impl;
 
+import java.time.Duration;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.selimhorri.app.config.jwt.JwtProperties;
+import com.selimhorri.app.jwt.model.JwtClaims;
+import com.selimhorri.app.jwt.model.JwtTokenPair;
+import com.selimhorri.app.jwt.util.JwtCodec;
 import com.selimhorri.app.jwt.util.JwtUtil;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.DefaultClaims;
+import lombok.RequiredArgsConstructor;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtilImpl implements JwtUtil {
 
-	private static final String SECRET_KEY = "secret";
+	private final JwtCodec jwtCodec;
+	private final JwtProperties jwtProperties;
 
 	@Override
 	public String extractUsername(final String token) {
-		return this.extractClaims(token, Claims::getSubject);
+		return this.extractAllClaims(token).getSubject();
 	}
 
 	@Override
 	public Date extractExpiration(final String token) {
-		return this.extractClaims(token, Claims::getExpiration);
+		return this.extractAllClaims(token).getExpirationDate();
 	}
 
 	@Override
 	public <T> T extractClaims(final String token, Function<Claims, T> claimsResolver) {
-		final Claims claims = this.extractAllClaims(token);
+		final JwtClaims jwtClaims = this.extractAllClaims(token);
+		final Claims claims = new DefaultClaims()
+				.setId(jwtClaims.getTokenId())
+				.setSubject(jwtClaims.getSubject())
+				.setIssuedAt(new Date(jwtClaims.getIssuedAt() * 1000L))
+				.setExpiration(jwtClaims.getExpirationDate());
+		claims.put("type", jwtClaims.getType());
+		claims.put("ati", jwtClaims.getAccessTokenId());
+		claims.put("roles", jwtClaims.getRoles());
+		claims.put("userId", jwtClaims.getUserId());
 		return claimsResolver.apply(claims);
 	}
 
-	private Claims extractAllClaims(final String token) {
-		return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+	@Override
+	public JwtClaims extractAllClaims(final String token) {
+		return this.jwtCodec.decode(token);
 	}
 
-	private Boolean isTokenExpired(final String token) {
-		return this.extractExpiration(token).before(new Date());
+	@Override
+	public String generateToken(final UserDetails userDetails, final String userId) {
+		return this.createAccessToken(UUID.randomUUID().toString(), userDetails, userId);
 	}
 
 	@Override
-	public String generateToken(final UserDetails userDetails, final String userId) {
-		final Map<String, Object> claims = new HashMap<>();
-		claims.put("userId", userId);
-		return this.createToken(claims, userDetails.getUsername());
+	public JwtTokenPair generateTokenPair(final UserDetails userDetails, final String userId) {
+		final String accessTokenId = UUID.randomUUID().toString();
+		return new JwtTokenPair(this.createAccessToken(accessTokenId, userDetails, userId),
+				this.createToken(JwtClaims.builder()
+						.tokenId(UUID.randomUUID().toString())
+						.type(JwtClaims.REFRESH)
+						.accessTokenId(accessTokenId), userDetails, userId, this.jwtProperties.getRefreshTokenTtl()));
 	}
 
-	private String createToken(final Map<String, Object> claims, final String subject) {
-		return Jwts.builder()
-				.setClaims(claims)
-				.setSubject(subject)
-				.setIssuedAt(new Date(System.currentTimeMillis()))
-				.setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-				.signWith(SignatureAlgorithm.HS256, SECRET_KEY)
-				.compact();
+	private String createAccessToken(final String tokenId, final UserDetails userDetails, final String userId) {
+		return this.createToken(JwtClaims.builder()
+				.tokenId(tokenId)
+				.type(JwtClaims.ACCESS)
+				.roles(userDetails.getAuthorities().stream()
+						.map(GrantedAuthority::getAuthority)
+						.collect(Collectors.toList())), userDetails, userId, this.jwtProperties.getAccessTokenTtl());
+	}
+
+	private String createToken(final JwtClaims.JwtClaimsBuilder claims, final UserDetails userDetails, final String userId,
+			final Duration ttl) {
+		final long now = System.currentTimeMillis() / 1000L;
+		return this.jwtCodec.encode(claims
+				.subject(userDetails.getUsername())
+				.userId(userId)
+				.issuedAt(now)
+				.expiration(now + ttl.getSeconds())
+				.build());
 	}
 
 	@Override
 	public Boolean validateToken(final String token, final UserDetails userDetails) {
-		final String username = this.extractUsername(token);
-		return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+		return this.validateToken(this.extractAllClaims(token), userDetails);
+	}
+
+	@Override
+	public Boolean validateToken(final JwtClaims claims, final UserDetails userDetails) {
+		return (userDetails.getUsername().equals(claims.getSubject()) && !claims.isExpired(System.currentTimeMillis()));
 	}
 
 	public String extractUserId(final String token) {
-		return extractClaims(token, claims -> claims.get("userId", String.class));
+		return this.extractAllClaims(token).getUserId();
 	}
 
 }
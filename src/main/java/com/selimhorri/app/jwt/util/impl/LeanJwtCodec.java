@@ -0,0 +1,288 @@
+package com.selimhorri.app.jwt.util.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.selimhorri.app.jwt.model.JwtClaims;
+import com.selimhorri.app.jwt.model.JwtKey;
+import com.selimhorri.app.jwt.service.JwtKeyService;
+import com.selimhorri.app.jwt.util.JwtCodec;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Works on the token bytes: the signature is checked over the ASCII of header.payload before the
+ * payload is read, and the payload is streamed for the claims we issue instead of being mapped.
+ * HMACs start from a keyed prototype, cloning it skips the key schedule on every call.
+ */
+@RequiredArgsConstructor
+public class LeanJwtCodec implements JwtCodec {
+	
+	private static final JsonFactory JSON = new JsonFactory();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final String ES256_SIGNATURE = "SHA256withECDSAinP1363Format";
+	private static final int ES256_SIGNATURE_LENGTH = 64;
+	private static final int MAX_MAC_PROTOTYPES = 16;
+	
+	private final JwtKeyService jwtKeyService;
+	private final Map<Key, Mac> macPrototypes = new ConcurrentHashMap<>();
+	
+	@Override
+	public String encode(final JwtClaims claims) {
+		final JwtKey key = this.jwtKeyService.getSigningKey();
+		final StringBuilder token = new StringBuilder(256);
+		try {
+			token.append(ENCODER.encodeToString(writeHeader(key)))
+					.append('.')
+					.append(ENCODER.encodeToString(writePayload(claims)));
+			final byte[] signingInput = token.toString().getBytes(StandardCharsets.US_ASCII);
+			return token.append('.')
+					.append(ENCODER.encodeToString(this.sign(key, signingInput)))
+					.toString();
+		}
+		catch (IOException | GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to sign JWT: " + e.getMessage(), e);
+		}
+	}
+	
+	@Override
+	public JwtClaims decode(final String token) {
+		final int headerEnd = token.indexOf('.');
+		final int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+		if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0)
+			throw new MalformedJwtException("JWT strings must contain exactly 2 period characters");
+		final byte[] ascii = token.getBytes(StandardCharsets.US_ASCII);
+		try {
+			final JwtKey key = this.readHeader(decode(ascii, 0, headerEnd));
+			if (!this.verify(key, ascii, payloadEnd, signature(decode(ascii, payloadEnd + 1, ascii.length - payloadEnd - 1))))
+				throw new SignatureException("JWT signature does not match locally computed signature");
+			return readPayload(decode(ascii, headerEnd + 1, payloadEnd - headerEnd - 1));
+		}
+		catch (IOException | IllegalArgumentException e) {
+			throw new MalformedJwtException("Malformed JWT: " + e.getMessage(), e);
+		}
+		catch (GeneralSecurityException e) {
+			throw new SignatureException("Unable to verify JWT signature: " + e.getMessage(), e);
+		}
+	}
+	
+	private JwtKey readHeader(final ByteBuffer header) throws IOException {
+		String algorithm = null;
+		String kid = null;
+		try (JsonParser parser = JSON.createParser(header.array(), 0, header.limit())) {
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new MalformedJwtException("JWT header is not a JSON object");
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				final String name = parser.getCurrentName();
+				parser.nextToken();
+				if ("alg".equals(name))
+					algorithm = parser.getValueAsString();
+				else if ("kid".equals(name))
+					kid = parser.getValueAsString();
+				else
+					parser.skipChildren();
+			}
+		}
+		final JwtKey key = this.jwtKeyService.findKey(kid);
+		if (key == null || !key.getAlgorithm().getValue().equals(algorithm))
+			throw new SignatureException("Unknown JWT signing key: " + kid);
+		return key;
+	}
+	
+	private static JwtClaims readPayload(final ByteBuffer payload) throws IOException {
+		final JwtClaims.JwtClaimsBuilder claims = JwtClaims.builder();
+		long notBefore = 0L;
+		try (JsonParser parser = JSON.createParser(payload.array(), 0, payload.limit())) {
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new MalformedJwtException("JWT payload is not a JSON object");
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				final String name = parser.getCurrentName();
+				parser.nextToken();
+				switch (name) {
+					case "jti":
+						claims.tokenId(parser.getValueAsString());
+						break;
+					case "type":
+						claims.type(parser.getValueAsString());
+						break;
+					case "ati":
+						claims.accessTokenId(parser.getValueAsString());
+						break;
+					case "sub":
+						claims.subject(parser.getValueAsString());
+						break;
+					case "userId":
+						claims.userId(parser.getValueAsString());
+						break;
+					case "roles":
+						claims.roles(readStrings(parser));
+						break;
+					case "iat":
+						claims.issuedAt(parser.getValueAsLong());
+						break;
+					case "exp":
+						claims.expiration(parser.getValueAsLong());
+						break;
+					case "nbf":
+						notBefore = parser.getValueAsLong();
+						break;
+					default:
+						parser.skipChildren();
+				}
+			}
+		}
+		final JwtClaims jwtClaims = claims.build();
+		final long now = System.currentTimeMillis();
+		if (jwtClaims.isExpired(now))
+			throw new ExpiredJwtException(null, null, "JWT expired at " + jwtClaims.getExpirationDate().toInstant());
+		if (notBefore != 0L && now < notBefore * 1000L)
+			throw new PrematureJwtException(null, null, "JWT must not be accepted before " + notBefore);
+		return jwtClaims;
+	}
+	
+	private static List<String> readStrings(final JsonParser parser) throws IOException {
+		if (parser.currentToken() != JsonToken.START_ARRAY) {
+			parser.skipChildren();
+			return null;
+		}
+		final List<String> values = new ArrayList<>(2);
+		while (parser.nextToken() != JsonToken.END_ARRAY)
+			values.add(parser.getValueAsString());
+		return values;
+	}
+	
+	private static byte[] writeHeader(final JwtKey key) throws IOException {
+		final ByteArrayOutputStream header = new ByteArrayOutputStream(64);
+		try (JsonGenerator generator = JSON.createGenerator(header)) {
+			generator.writeStartObject();
+			generator.writeStringField("kid", key.getKid());
+			generator.writeStringField("alg", key.getAlgorithm().getValue());
+			generator.writeEndObject();
+		}
+		return header.toByteArray();
+	}
+	
+	private static byte[] writePayload(final JwtClaims claims) throws IOException {
+		final ByteArrayOutputStream payload = new ByteArrayOutputStream(128);
+		try (JsonGenerator generator = JSON.createGenerator(payload)) {
+			generator.writeStartObject();
+			if (claims.getTokenId() != null)
+				generator.writeStringField("jti", claims.getTokenId());
+			if (claims.getType() != null)
+				generator.writeStringField("type", claims.getType());
+			if (claims.getAccessTokenId() != null)
+				generator.writeStringField("ati", claims.getAccessTokenId());
+			if (claims.getRoles() != null) {
+				generator.writeArrayFieldStart("roles");
+				for (final String role : claims.getRoles())
+					generator.writeString(role);
+				generator.writeEndArray();
+			}
+			if (claims.getUserId() != null)
+				generator.writeStringField("userId", claims.getUserId());
+			if (claims.getSubject() != null)
+				generator.writeStringField("sub", claims.getSubject());
+			if (claims.getIssuedAt() != 0L)
+				generator.writeNumberField("iat", claims.getIssuedAt());
+			if (claims.getExpiration() != 0L)
+				generator.writeNumberField("exp", claims.getExpiration());
+			generator.writeEndObject();
+		}
+		return payload.toByteArray();
+	}
+	
+	private byte[] sign(final JwtKey key, final byte[] signingInput) throws GeneralSecurityException {
+		if (key.getAlgorithm() == SignatureAlgorithm.HS256) {
+			final Mac mac = this.mac(key.getSigningKey());
+			mac.update(signingInput);
+			return mac.doFinal();
+		}
+		final Signature signature = Signature.getInstance(ES256_SIGNATURE);
+		signature.initSign((PrivateKey) key.getSigningKey());
+		signature.update(signingInput);
+		return signature.sign();
+	}
+	
+	private boolean verify(final JwtKey key, final byte[] ascii, final int length, final byte[] signature)
+			throws GeneralSecurityException {
+		if (key.getAlgorithm() == SignatureAlgorithm.HS256) {
+			final Mac mac = this.mac(key.getVerificationKey());
+			mac.update(ascii, 0, length);
+			return MessageDigest.isEqual(mac.doFinal(), signature);
+		}
+		if (signature.length != ES256_SIGNATURE_LENGTH)
+			return false;
+		final Signature verifier = Signature.getInstance(ES256_SIGNATURE);
+		verifier.initVerify((PublicKey) key.getVerificationKey());
+		verifier.update(ascii, 0, length);
+		return verifier.verify(signature);
+	}
+	
+	private Mac mac(final Key key) throws GeneralSecurityException {
+		Mac prototype = this.macPrototypes.get(key);
+		if (prototype == null) {
+			// rotated out keys are dropped with the rest, the next calls rebuild the current ones
+			if (this.macPrototypes.size() >= MAX_MAC_PROTOTYPES)
+				this.macPrototypes.clear();
+			prototype = Mac.getInstance(SignatureAlgorithm.HS256.getJcaName());
+			prototype.init(key);
+			this.macPrototypes.put(key, prototype);
+		}
+		try {
+			return (Mac) prototype.clone();
+		}
+		catch (CloneNotSupportedException e) {
+			final Mac mac = Mac.getInstance(prototype.getAlgorithm());
+			mac.init(key);
+			return mac;
+		}
+	}
+	
+	private static ByteBuffer decode(final byte[] ascii, final int offset, final int length) {
+		return DECODER.decode(ByteBuffer.wrap(ascii, offset, length));
+	}
+	
+	private static byte[] signature(final ByteBuffer decoded) {
+		return decoded.limit() == decoded.array().length ? decoded.array()
+				: Arrays.copyOf(decoded.array(), decoded.limit());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,83 @@
+package com.selimhorri.app.security;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * What a route requires, same semantics as the permitAll, authenticated and hasAnyRole expressions.
+ */
+public final class RouteAccess {
+	
+	private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+	private static final RouteAccess PERMIT_ALL = new RouteAccess("permitAll", Set.of());
+	private static final RouteAccess AUTHENTICATED = new RouteAccess("authenticated", Set.of());
+	
+	private final String name;
+	private final Set<String> authorities;
+	
+	private RouteAccess(final String name, final Set<String> authorities) {
+		this.name = name;
+		this.authorities = authorities;
+	}
+	
+	public static RouteAccess permitAll() {
+		return PERMIT_ALL;
+	}
+	
+	public static RouteAccess authenticated() {
+		return AUTHENTICATED;
+	}
+	
+	public static RouteAccess hasRole(final String role) {
+		return hasAnyRole(role);
+	}
+	
+	public static RouteAccess hasAnyRole(final String... roles) {
+		final Set<String> authorities = Arrays.stream(roles)
+				.map(role -> "ROLE_" + role)
+				.collect(Collectors.toUnmodifiableSet());
+		return new RouteAccess("hasAnyRole" + authorities, authorities);
+	}
+	
+	public boolean isPermitAll() {
+		return this == PERMIT_ALL;
+	}
+	
+	public boolean isGranted(final Authentication authentication) {
+		if (this == PERMIT_ALL)
+			return true;
+		if (authentication == null)
+			return false;
+		if (this == AUTHENTICATED)
+			return !TRUST_RESOLVER.isAnonymous(authentication) && authentication.isAuthenticated();
+		for (final GrantedAuthority authority : authentication.getAuthorities())
+			if (this.authorities.contains(authority.getAuthority()))
+				return true;
+		return false;
+	}
+	
+	@Override
+	public String toString() {
+		return this.name;
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,52 @@
+package com.selimhorri.app.security;
+
+import java.util.function.Supplier;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decides every request with a single RouteTable lookup instead of trying each matcher in turn.
+ */
+@RequiredArgsConstructor
+public class RouteAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+	
+	private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+	private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+	
+	private final RouteTable routeTable;
+	
+	@Override
+	public AuthorizationDecision check(final Supplier<Authentication> authentication,
+			final RequestAuthorizationContext context) {
+		final RouteAccess access = this.routeTable.resolve(context.getRequest().getMethod(), path(context.getRequest()));
+		return access.isPermitAll() || access.isGranted(authentication.get()) ? GRANTED : DENIED;
+	}
+	
+	/**
+	 * The path AntPathRequestMatcher matches on, relative to the context path.
+	 */
+	public static String path(final HttpServletRequest request) {
+		return request.getPathInfo() == null ? request.getServletPath() : request.getServletPath() + request.getPathInfo();
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
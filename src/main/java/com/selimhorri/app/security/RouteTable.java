@@ -0,0 +1,217 @@
+package com.selimhorri.app.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Authorization rules compiled into one path trie per HTTP method. A lookup walks the request path
+ * once and yields the first declared rule matching it, the decision the same rules would give as a
+ * chain of AntPathRequestMatchers tried in order.
+ * <p>
+ * Supported patterns are those the chain used: literal and {@code *} segments, a trailing
+ * {@code /**} after literal segments, and {@code /**} alone. Like AntPathMatcher, a pattern not
+ * starting with a slash never matches a request path.
+ */
+public final class RouteTable {
+	
+	private static final int NONE = Integer.MAX_VALUE;
+	private static final String SUBPATH = "/**";
+	private static final String ANY_SEGMENT = "*";
+	
+	private final List<Rule> rules;
+	private final RouteAccess defaultAccess;
+	private final Node[] byMethod = new Node[HttpMethod.values().length];
+	// rules without a method, for methods HttpMethod doesn't know
+	private final Node unknownMethod = new Node(null);
+	// every rule, AntPathRequestMatcher ignores the method of a request which has none
+	private final Node noMethod = new Node(null);
+	
+	private RouteTable(final List<Rule> rules, final RouteAccess defaultAccess) {
+		this.rules = Collections.unmodifiableList(rules);
+		this.defaultAccess = defaultAccess;
+		Arrays.setAll(this.byMethod, i -> new Node(null));
+		for (int index = 0; index < rules.size(); index++) {
+			final Rule rule = rules.get(index);
+			if (rule.getMethod() == null) {
+				for (final Node root : this.byMethod)
+					insert(root, rule.getPattern(), index);
+				insert(this.unknownMethod, rule.getPattern(), index);
+			}
+			else
+				insert(this.byMethod[rule.getMethod().ordinal()], rule.getPattern(), index);
+			insert(this.noMethod, rule.getPattern(), index);
+		}
+	}
+	
+	public static Builder builder() {
+		return new Builder();
+	}
+	
+	public List<Rule> getRules() {
+		return this.rules;
+	}
+	
+	public RouteAccess resolve(final String method, final String path) {
+		final int index = this.match(method, path);
+		return index < 0 ? this.defaultAccess : this.rules.get(index).getAccess();
+	}
+	
+	/**
+	 * Index of the first rule matching, -1 when none does.
+	 */
+	public int match(final String method, final String path) {
+		final Node root;
+		if (!StringUtils.hasText(method))
+			root = this.noMethod;
+		else {
+			final HttpMethod httpMethod = HttpMethod.resolve(method);
+			root = httpMethod == null ? this.unknownMethod : this.byMethod[httpMethod.ordinal()];
+		}
+		final int index = find(root, path, 0, !path.isEmpty() && path.charAt(path.length() - 1) == '/', NONE);
+		return index == NONE ? -1 : index;
+	}
+	
+	private static int find(final Node node, final String path, final int from, final boolean trailingSlash, int best) {
+		best = Math.min(best, node.subpath);
+		// empty segments don't count, as in AntPathMatcher
+		int start = from;
+		while (start < path.length() && path.charAt(start) == '/')
+			start++;
+		if (start == path.length())
+			return Math.min(best, trailingSlash ? node.slash : node.exact);
+		int end = path.indexOf('/', start);
+		if (end < 0)
+			end = path.length();
+		final int length = end - start;
+		for (final Node child : node.literals)
+			if (child.segment.length() == length && path.regionMatches(start, child.segment, 0, length)) {
+				if (child.lowest < best)
+					best = find(child, path, end, trailingSlash, best);
+				break;
+			}
+		if (node.star != null && node.star.lowest < best)
+			best = find(node.star, path, end, trailingSlash, best);
+		return best;
+	}
+	
+	private static void insert(final Node root, final String pattern, final int index) {
+		if (SUBPATH.equals(pattern) || "**".equals(pattern)) {
+			root.subpath = Math.min(root.subpath, index);
+			root.lowest = Math.min(root.lowest, index);
+			return;
+		}
+		if (!pattern.startsWith("/"))
+			return;
+		final boolean subpath = pattern.endsWith(SUBPATH) && pattern.indexOf('*') == pattern.length() - 2;
+		final String[] segments = StringUtils.tokenizeToStringArray(
+				subpath ? pattern.substring(0, pattern.length() - SUBPATH.length()) : pattern, "/", false, true);
+		Node node = root;
+		Node parent = null;
+		node.lowest = Math.min(node.lowest, index);
+		for (final String segment : segments) {
+			if (segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0
+					|| segment.indexOf('*') >= 0 && !ANY_SEGMENT.equals(segment))
+				throw new IllegalArgumentException("Unsupported route pattern " + pattern);
+			parent = node;
+			node = node.child(segment);
+			node.lowest = Math.min(node.lowest, index);
+		}
+		if (subpath)
+			node.subpath = Math.min(node.subpath, index);
+		else if (pattern.endsWith("/"))
+			node.slash = Math.min(node.slash, index);
+		else {
+			node.exact = Math.min(node.exact, index);
+			// AntPathMatcher lets a trailing * match nothing when the path ends with a slash
+			if (parent != null && ANY_SEGMENT.equals(segments[segments.length - 1]))
+				parent.slash = Math.min(parent.slash, index);
+		}
+	}
+	
+	@Getter
+	@AllArgsConstructor
+	public static final class Rule {
+		
+		private final HttpMethod method;
+		private final String pattern;
+		private final RouteAccess access;
+		
+	}
+	
+	private static final class Node {
+		
+		private final String segment;
+		private Node[] literals = new Node[0];
+		private Node star;
+		private int exact = NONE;
+		private int slash = NONE;
+		private int subpath = NONE;
+		// lowest rule index below this node, prunes branches which can't beat the match found so far
+		private int lowest = NONE;
+		
+		private Node(final String segment) {
+			this.segment = segment;
+		}
+		
+		private Node child(final String segment) {
+			if (ANY_SEGMENT.equals(segment)) {
+				if (this.star == null)
+					this.star = new Node(null);
+				return this.star;
+			}
+			for (final Node literal : this.literals)
+				if (literal.segment.equals(segment))
+					return literal;
+			final Node literal = new Node(segment);
+			this.literals = Arrays.copyOf(this.literals, this.literals.length + 1);
+			this.literals[this.literals.length - 1] = literal;
+			return literal;
+		}
+		
+	}
+	
+	public static final class Builder {
+		
+		private final List<Rule> rules = new ArrayList<>();
+		
+		private Builder() {
+			
+		}
+		
+		public Builder rule(final HttpMethod method, final String pattern, final RouteAccess access) {
+			this.rules.add(new Rule(method, pattern, access));
+			return this;
+		}
+		
+		public Builder rule(final String pattern, final RouteAccess access) {
+			return this.rule(null, pattern, access);
+		}
+		
+		public RouteTable build(final RouteAccess defaultAccess) {
+			return new RouteTable(new ArrayList<>(this.rules), defaultAccess);
+		}
+		
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
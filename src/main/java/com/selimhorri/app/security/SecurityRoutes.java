@@ -0,0 +1,152 @@
+package com.selimhorri.app.security;
+
+import static com.selimhorri.app.security.RouteAccess.authenticated;
+import static com.selimhorri.app.security.RouteAccess.hasAnyRole;
+import static com.selimhorri.app.security.RouteAccess.hasRole;
+import static com.selimhorri.app.security.RouteAccess.permitAll;
+import static org.springframework.http.HttpMethod.DELETE;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.OPTIONS;
+import static org.springframework.http.HttpMethod.PATCH;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.http.HttpMethod.PUT;
+
+import javax.servlet.http.HttpServletRequest;
+
+import com.selimhorri.app.business.user.model.RoleBasedAuthority;
+
+/**
+ * Authorization rules of the API, in precedence order, the first rule matching method and path applies.
+ */
+public final class SecurityRoutes {
+	
+	private static final String ADMIN = RoleBasedAuthority.ROLE_ADMIN.getRole();
+	private static final String USER = RoleBasedAuthority.ROLE_USER.getRole();
+	
+	public static final RouteTable TABLE = RouteTable.builder()
+			.rule(OPTIONS, "/**", permitAll())
+			.rule("/", permitAll())
+			.rule("index", permitAll())
+			.rule("**/css/**", permitAll())
+			.rule("**/js/**", permitAll())
+			.rule("/api/authenticate/**", permitAll())
+			
+			// User Resource
+			.rule(POST, "/api/users", permitAll())
+			.rule(GET, "/api/users", hasRole(ADMIN))
+			.rule(GET, "/api/users/username/*", hasRole(ADMIN))
+			.rule(GET, "/api/users/*", hasAnyRole(ADMIN, USER))
+			.rule(PUT, "/api/users/*", hasAnyRole(ADMIN, USER))
+			.rule(DELETE, "/api/users/*", hasAnyRole(ADMIN, USER))
+			
+			// Credentials resource
+			.rule(GET, "/api/credentials", hasRole(ADMIN))
+			.rule(GET, "/api/credentials/*", hasAnyRole(ADMIN, USER))
+			.rule(GET, "/api/credentials/username/*", hasRole(ADMIN))
+			.rule(POST, "/api/credentials", hasAnyRole(ADMIN, USER))
+			.rule(PUT, "/api/credentials/*", hasAnyRole(ADMIN, USER))
+			.rule(DELETE, "/api/credentials/*", hasAnyRole(ADMIN, USER))
+			
+			// Address resource
+			.rule(GET, "/api/address", hasRole(ADMIN))
+			.rule(GET, "/api/address/*", hasAnyRole(ADMIN, USER))
+			.rule(POST, "/api/address", hasAnyRole(ADMIN, USER))
+			.rule(PUT, "/api/address/*", hasAnyRole(ADMIN, USER))
+			.rule(DELETE, "/api/address/*", hasAnyRole(ADMIN, USER))
+			
+			// VerificationToken resource
+			.rule(GET, "/api/verificationTokens", hasRole(ADMIN))
+			.rule(GET, "/api/verificationTokens/*", hasRole(ADMIN))
+			.rule(POST, "/api/verificationTokens", hasAnyRole(ADMIN, USER))
+			.rule(PUT, "/api/verificationTokens/*", hasRole(ADMIN))
+			.rule(DELETE, "/api/verificationTokens/*", hasRole(ADMIN))
+			
+			// Product resource
+			.rule(GET, "/api/products", permitAll())
+			.rule(GET, "/api/products/*", permitAll())
+			.rule(POST, "/api/products", hasRole(ADMIN))
+			.rule(PUT, "/api/products/*", hasRole(ADMIN))
+			.rule(DELETE, "/api/products/*", hasRole(ADMIN))
+			
+			// Categories resource
+			.rule(GET, "/api/categories", permitAll())
+			.rule(GET, "/api/categories/*", permitAll())
+			.rule(GET, "/api/categories/*/products", permitAll())
+			.rule(GET, "/api/categories/*/breadcrumb", permitAll())
+			.rule(POST, "/api/categories", hasRole(ADMIN))
+			.rule(PUT, "/api/categories/*", hasRole(ADMIN))
+			.rule(DELETE, "/api/categories/*", hasRole(ADMIN))
+			
+			// Cart resource
+			.rule(GET, "/api/carts", hasRole(ADMIN))
+			.rule(GET, "/api/carts/*", hasAnyRole(ADMIN, USER))
+			.rule(POST, "/api/carts", hasAnyRole(ADMIN, USER))
+			.rule(DELETE, "/api/carts/*", hasAnyRole(ADMIN, USER))
+			
+			// Order resource
+			.rule(GET, "/api/orders", hasRole(ADMIN))
+			.rule(GET, "/api/orders/*", hasAnyRole(ADMIN, USER))
+			.rule(GET, "/api/orders/*/detail", hasAnyRole(ADMIN, USER))
+			.rule(POST, "/api/orders", hasAnyRole(ADMIN, USER))
+			.rule(PATCH, "/api/orders/*/status", hasRole(ADMIN))
+			.rule(PUT, "/api/orders/*", hasAnyRole(ADMIN, USER))
+			.rule(DELETE, "/api/orders/*", hasAnyRole(ADMIN, USER))
+			
+			// Favourite resource
+			.rule(GET, "/api/favourites", hasRole(ADMIN))
+			.rule(GET, "/api/favourites/*/*", hasAnyRole(ADMIN, USER))
+			.rule(POST, "/api/favourites", hasAnyRole(ADMIN, USER))
+			.rule(DELETE, "/api/favourites/*/*", hasAnyRole(ADMIN, USER))
+			
+			// Payment resource
+			.rule(GET, "/api/payments", hasRole(ADMIN))
+			.rule(GET, "/api/payments/*", hasAnyRole(ADMIN, USER))
+			.rule(POST, "/api/payments", hasAnyRole(ADMIN, USER))
+			.rule(PUT, "/api/payments/*", hasRole(ADMIN))
+			.rule(DELETE, "/api/payments/*", hasAnyRole(ADMIN, USER))
+			
+			// Shipping resource
+			.rule(GET, "/api/shippings", hasRole(ADMIN))
+			.rule(GET, "/api/shippings/*", hasAnyRole(ADMIN, USER))
+			.rule(POST, "/api/shippings", hasAnyRole(ADMIN, USER))
+			.rule(DELETE, "/api/shippings/*", hasAnyRole(ADMIN, USER))
+			
+			// Dashboard resource
+			.rule(GET, "/api/dashboard", hasAnyRole(ADMIN, USER))
+			
+			// Query resource
+			.rule(POST, "/api/query", hasAnyRole(ADMIN, USER))
+			
+			// Default
+			.rule("/api/**", hasAnyRole(USER, ADMIN))
+			
+			.rule("/actuator/health/**", permitAll())
+			.rule("/actuator/info/**", permitAll())
+			.rule("/actuator/**", hasRole(ADMIN))
+			.build(authenticated());
+	
+	private SecurityRoutes() {
+		
+	}
+	
+	/**
+	 * Requests any caller may make, they need no identity.
+	 */
+	public static boolean isPublic(final HttpServletRequest request) {
+		return TABLE.resolve(request.getMethod(), RouteAuthorizationManager.path(request)).isPermitAll();
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
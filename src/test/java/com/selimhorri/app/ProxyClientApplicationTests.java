@@ -1,10 +1,19 @@
 package com.selimhorri.app;
 
+import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"spring.config.import=",
+		"spring.cloud.config.enabled=false",
+		"eureka.client.enabled=false",
+		"app.warmup.enabled=false",
+		"app.access-log.enabled=false"
+})
 class ProxyClientApplicationTests {
 	
-	
+	@Test
+	void contextLoads() {
+	}
 	
 }
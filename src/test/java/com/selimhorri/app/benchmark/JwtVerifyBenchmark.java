@@ -0,0 +1,195 @@
+package com.selimhorri.app.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+
+import com.selimhorri.app.config.jwt.JwtProperties;
+import com.selimhorri.app.jwt.model.JwtKey;
+import com.selimhorri.app.jwt.model.JwtKeyRing;
+import com.selimhorri.app.jwt.service.JwtKeyService;
+import com.selimhorri.app.jwt.util.impl.JjwtCodec;
+import com.selimhorri.app.jwt.util.impl.JwtUtilImpl;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * Verify throughput per algorithm. {@code signature} is the bare JCA check of a JWS signature,
+ * HS256, ES256 and EdDSA (Ed25519). {@code keyRing} parses a token through the jjwt codec with keys
+ * preloaded and picked by kid, {@code legacySecret} is the former parse which decoded the string
+ * secret on every call. jjwt 0.9.1 has no EdDSA, so that one only has the bare signature check.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.selimhorri.app.benchmark.JwtVerifyBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+	
+	private static final byte[] SIGNING_INPUT = ("eyJhbGciOiJIUzI1NiJ9"
+			+ ".eyJzdWIiOiJzZWxpbSIsInVzZXJJZCI6IjEiLCJleHAiOjE5MDAwMDAwMDAsImlhdCI6MTcwMDAwMDAwMH0")
+			.getBytes(StandardCharsets.US_ASCII);
+	
+	@State(Scope.Thread)
+	public static class SignatureState {
+		
+		@Param({ "HS256", "ES256", "EdDSA" })
+		public String algorithm;
+		
+		private Mac mac;
+		private Signature verifier;
+		private byte[] signature;
+		
+		@Setup
+		public void setUp() throws Exception {
+			if ("HS256".equals(this.algorithm)) {
+				this.mac = Mac.getInstance("HmacSHA256");
+				this.mac.init(new SecretKeySpec(new byte[32], "HmacSHA256"));
+				this.signature = this.mac.doFinal(SIGNING_INPUT);
+				return;
+			}
+			final KeyPair keyPair;
+			if ("ES256".equals(this.algorithm)) {
+				final KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+				generator.initialize(new ECGenParameterSpec("secp256r1"));
+				keyPair = generator.generateKeyPair();
+				this.verifier = Signature.getInstance("SHA256withECDSAinP1363Format");
+			}
+			else {
+				keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+				this.verifier = Signature.getInstance("Ed25519");
+			}
+			final Signature signer = Signature.getInstance(this.verifier.getAlgorithm());
+			signer.initSign(keyPair.getPrivate());
+			signer.update(SIGNING_INPUT);
+			this.signature = signer.sign();
+			this.verifier.initVerify(keyPair.getPublic());
+		}
+		
+	}
+	
+	@State(Scope.Thread)
+	public static class TokenState {
+		
+		@Param({ "HS256", "ES256" })
+		public String algorithm;
+		
+		private JwtUtilImpl jwtUtil;
+		private String token;
+		private String legacyToken;
+		
+		@Setup
+		public void setUp() throws Exception {
+			final JwtKey key;
+			if ("HS256".equals(this.algorithm)) {
+				final SecretKeySpec secret = new SecretKeySpec(Base64.getDecoder().decode("c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0MTI="),
+						SignatureAlgorithm.HS256.getJcaName());
+				key = new JwtKey("hs", SignatureAlgorithm.HS256, secret, secret, 0L);
+			}
+			else {
+				final KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+				generator.initialize(new ECGenParameterSpec("secp256r1"));
+				final KeyPair keyPair = generator.generateKeyPair();
+				key = new JwtKey("es", SignatureAlgorithm.ES256, keyPair.getPrivate(), keyPair.getPublic(), 0L);
+			}
+			final JwtKeyRing keyRing = JwtKeyRing.of(List.of(key), null);
+			this.jwtUtil = new JwtUtilImpl(new JjwtCodec(new JwtKeyService() {
+				
+				@Override
+				public JwtKey getSigningKey() {
+					return keyRing.getSigningKey();
+				}
+				
+				@Override
+				public JwtKey findKey(final String kid) {
+					return keyRing.find(kid);
+				}
+				
+				@Override
+				public void reload() {
+				}
+				
+			}), new JwtProperties());
+			this.token = this.jwtUtil.generateToken(User.withUsername("selim")
+					.password("")
+					.authorities(Collections.emptyList())
+					.build(), "1");
+			this.legacyToken = Jwts.builder()
+					.setSubject("selim")
+					.setExpiration(new Date(System.currentTimeMillis() + 3_600_000L))
+					.signWith(SignatureAlgorithm.HS256, "secret")
+					.compact();
+		}
+		
+	}
+	
+	@Benchmark
+	public boolean signature(final SignatureState state) throws Exception {
+		if (state.mac != null)
+			return MessageDigest.isEqual(state.mac.doFinal(SIGNING_INPUT), state.signature);
+		state.verifier.update(SIGNING_INPUT);
+		return state.verifier.verify(state.signature);
+	}
+	
+	@Benchmark
+	public String keyRing(final TokenState state) {
+		return state.jwtUtil.extractUsername(state.token);
+	}
+	
+	@Benchmark
+	public String legacySecret(final TokenState state) {
+		return Jwts.parser().setSigningKey("secret").parseClaimsJws(state.legacyToken).getBody().getSubject();
+	}
+	
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtVerifyBenchmark.class.getSimpleName())
+				.build())
+				.run();
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
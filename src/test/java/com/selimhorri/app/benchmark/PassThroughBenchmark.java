@@ -0,0 +1,81 @@
+package com.selimhorri.app.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.passthrough.util.PassThroughRelay;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+
+/**
+ * Relaying a product page through DTOs, as the proxy did, against copying its bytes.
+ * Allocation per request is what matters here, run with the gc profiler:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.selimhorri.app.benchmark.PassThroughBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassThroughBenchmark {
+	
+	// Jackson closes what it writes to, a servlet stream survives that
+	private final OutputStream sink = new OutputStream() {
+		
+		@Override
+		public void write(final int b) {
+		}
+		
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+		}
+		
+	};
+	private ObjectMapper objectMapper;
+	private byte[] json;
+	
+	@Setup
+	public void setUp() throws IOException {
+		this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		this.json = this.objectMapper.writeValueAsBytes(ResponseSerializationBenchmark.response("products"));
+	}
+	
+	@Benchmark
+	public void dtoRoundTrip() throws IOException {
+		this.objectMapper.writeValue(this.sink,
+				this.objectMapper.readValue(this.json, ProductProductServiceCollectionDtoResponse.class));
+	}
+	
+	@Benchmark
+	public long passThrough() throws IOException {
+		return PassThroughRelay.copy(new ByteArrayInputStream(this.json), this.sink);
+	}
+	
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(PassThroughBenchmark.class.getSimpleName())
+				.addProfiler("gc")
+				.build())
+				.run();
+	}
+	
+}
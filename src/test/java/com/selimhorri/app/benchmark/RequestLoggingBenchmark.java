@@ -0,0 +1,123 @@
+package com.selimhorri.app.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+
+/**
+ * Logging cost of one authenticated request, as the JWT filter and services used to log it
+ * (synchronous INFO lines and stdout) against the sampled summary behind an async appender.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.selimhorri.app.benchmark.RequestLoggingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestLoggingBenchmark {
+	
+	private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %5p [%t] %logger{39} : %m%n";
+	
+	private LoggerContext loggerContext;
+	private Logger syncLogger;
+	private Logger asyncLogger;
+	private PrintStream stdout;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.loggerContext = new LoggerContext();
+		this.syncLogger = this.logger("sync", this.appender("SYNC"));
+		final AsyncAppender asyncAppender = new AsyncAppender();
+		asyncAppender.setContext(this.loggerContext);
+		asyncAppender.setQueueSize(8192);
+		asyncAppender.setNeverBlock(true);
+		asyncAppender.addAppender(this.appender("FILE"));
+		asyncAppender.start();
+		this.asyncLogger = this.logger("async", asyncAppender);
+		this.stdout = new PrintStream(OutputStream.nullOutputStream());
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.loggerContext.stop();
+	}
+	
+	@Benchmark
+	public void before() {
+		this.syncLogger.info("**JwtRequestFilter, once per request, validating and extracting token*\n");
+		this.syncLogger.info("**String, jwt service extract username from given token!*");
+		this.syncLogger.info("**UserDetails, load user by username*\n");
+		this.syncLogger.info("**Boolean, jwt service validate token from given token and userDetails!*");
+		this.syncLogger.info("**Date, jwt service extract expiration from given token!*");
+		this.stdout.println("ID EN CADENA " + ThreadLocalRandom.current().nextInt(1000));
+		this.syncLogger.info("**Jwt request filtered!*\n");
+	}
+	
+	@Benchmark
+	public void after() {
+		this.asyncLogger.debug("**String, jwt service extract username from given token!*");
+		this.asyncLogger.debug("**UserDetails, load user by username*\n");
+		this.asyncLogger.debug("**Boolean, jwt service validate token from given token and userDetails!*");
+		this.asyncLogger.debug("**Date, jwt service extract expiration from given token!*");
+		if (this.asyncLogger.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < 0.01)
+			this.asyncLogger.info("{} {} status={} durationMs={} userId={}", "GET", "/app/api/products/1", 200, 3L, "1");
+	}
+	
+	private Logger logger(final String name, final Appender<ILoggingEvent> appender) {
+		final Logger logger = this.loggerContext.getLogger(name);
+		logger.setLevel(ch.qos.logback.classic.Level.INFO);
+		logger.setAdditive(false);
+		logger.addAppender(appender);
+		return logger;
+	}
+	
+	private OutputStreamAppender<ILoggingEvent> appender(final String name) {
+		final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(this.loggerContext);
+		encoder.setPattern(PATTERN);
+		encoder.start();
+		final OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+		appender.setName(name);
+		appender.setContext(this.loggerContext);
+		appender.setEncoder(encoder);
+		appender.setOutputStream(OutputStream.nullOutputStream());
+		appender.start();
+		return appender;
+	}
+	
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(RequestLoggingBenchmark.class.getSimpleName())
+				.build())
+				.run();
+	}
+	
+}
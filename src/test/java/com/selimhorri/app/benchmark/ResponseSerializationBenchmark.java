@@ -0,0 +1,169 @@
+package com.selimhorri.app.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.selimhorri.app.business.favourite.model.FavouriteDto;
+import com.selimhorri.app.business.favourite.model.response.FavouriteFavouriteServiceCollectionDtoResponse;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.CartOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.PaymentStatus;
+import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.user.model.UserDto;
+import com.selimhorri.app.business.user.model.response.UserUserServiceCollectionDtoResponse;
+
+/**
+ * Encode and decode of the collection wrappers with the mapper Boot builds by default, against
+ * the same mapper with Blackbird registered as JacksonConfig does.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.selimhorri.app.benchmark.ResponseSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+	
+	private static final int ITEMS = 50;
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000);
+	
+	@Param({ "products", "orders", "carts", "payments", "favourites", "users" })
+	public String wrapper;
+	
+	@Param({ "default", "tuned" })
+	public String mapper;
+	
+	private ObjectMapper objectMapper;
+	private Object response;
+	private byte[] json;
+	
+	@Setup
+	public void setUp() throws IOException {
+		final Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+		if ("tuned".equals(this.mapper))
+			builder.modulesToInstall(new BlackbirdModule());
+		this.objectMapper = builder.build();
+		this.response = response(this.wrapper);
+		this.json = this.objectMapper.writeValueAsBytes(this.response);
+	}
+	
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return this.objectMapper.writeValueAsBytes(this.response);
+	}
+	
+	@Benchmark
+	public Object decode() throws IOException {
+		return this.objectMapper.readValue(this.json, this.response.getClass());
+	}
+	
+	static Object response(final String wrapper) {
+		switch (wrapper) {
+			case "products":
+				return new ProductProductServiceCollectionDtoResponse(items(ResponseSerializationBenchmark::product));
+			case "orders":
+				return new OrderOrderServiceDtoCollectionResponse(items(ResponseSerializationBenchmark::order));
+			case "carts":
+				return new CartOrderServiceDtoCollectionResponse(items(i -> CartDto.builder()
+						.cartId(i)
+						.userId(i % 7)
+						.build()));
+			case "payments":
+				return new PaymentPaymentServiceDtoCollectionResponse(items(i -> PaymentDto.builder()
+						.paymentId(i)
+						.isPayed(i % 2 == 0)
+						.paymentStatus(PaymentStatus.IN_PROGRESS)
+						.orderDto(com.selimhorri.app.business.payment.model.OrderDto.builder()
+								.orderId(i)
+								.orderDate(NOW)
+								.orderDesc("Order " + i)
+								.orderFee(12.5 * i)
+								.build())
+						.build()));
+			case "favourites":
+				return new FavouriteFavouriteServiceCollectionDtoResponse(items(i -> FavouriteDto.builder()
+						.userId(i % 7)
+						.productId(i)
+						.likeDate(NOW)
+						.build()));
+			case "users":
+				return new UserUserServiceCollectionDtoResponse(items(i -> UserDto.builder()
+						.userId(i)
+						.firstName("First" + i)
+						.lastName("Last" + i)
+						.imageUrl("https://cdn.example.com/users/" + i + ".png")
+						.email("user" + i + "@example.com")
+						.phone("+1555000" + i)
+						.build()));
+			default:
+				throw new IllegalArgumentException(wrapper);
+		}
+	}
+	
+	private static <T> List<T> items(final IntFunction<T> item) {
+		return IntStream.range(0, ITEMS).mapToObj(item).collect(Collectors.toList());
+	}
+	
+	private static ProductDto product(final int i) {
+		return ProductDto.builder()
+				.productId(i)
+				.productTitle("Product " + i)
+				.imageUrl("https://cdn.example.com/products/" + i + ".png")
+				.sku("SKU-" + i)
+				.priceUnit(9.99 * i)
+				.quantity(i % 13)
+				.categoryDto(CategoryDto.builder().categoryId(i % 5).categoryTitle("Category " + i % 5).build())
+				.build();
+	}
+	
+	private static OrderDto order(final int i) {
+		return OrderDto.builder()
+				.orderId(i)
+				.orderDate(NOW)
+				.orderDesc("Order " + i)
+				.orderStatus("CREATED")
+				.orderFee(12.5 * i)
+				.cartDto(CartDto.builder().cartId(i).userId(i % 7).build())
+				.build();
+	}
+	
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ResponseSerializationBenchmark.class.getSimpleName())
+				.build())
+				.run();
+	}
+	
+}
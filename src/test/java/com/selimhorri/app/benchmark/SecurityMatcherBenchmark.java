@@ -0,0 +1,94 @@
+package com.selimhorri.app.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import com.selimhorri.app.security.RouteAuthorizationManager;
+import com.selimhorri.app.security.SecurityRoutes;
+
+/**
+ * Cost of finding the rule for a request: the antMatchers chain, one AntPathRequestMatcher per rule
+ * tried in order, against the compiled RouteTable. Routes are picked from early, middle and late in
+ * the rule set, and one matching no rule.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.selimhorri.app.benchmark.SecurityMatcherBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityMatcherBenchmark {
+	
+	@Param({ "POST /api/users", "GET /api/products/7", "GET /api/orders/7/detail", "POST /api/query",
+			"GET /actuator/prometheus", "GET /swagger-ui.html" })
+	public String route;
+	
+	private List<RequestMatcher> chain;
+	private MockHttpServletRequest request;
+	
+	@Setup
+	public void setUp() {
+		this.chain = SecurityRoutes.TABLE.getRules().stream()
+				.map(rule -> new AntPathRequestMatcher(rule.getPattern(), rule.getMethod() == null ? null : rule.getMethod().name()))
+				.collect(Collectors.toList());
+		final String[] parts = this.route.split(" ");
+		this.request = new MockHttpServletRequest(parts[0], parts[1]);
+		this.request.setServletPath(parts[1]);
+	}
+	
+	@Benchmark
+	public int antMatcherChain() {
+		for (int i = 0; i < this.chain.size(); i++)
+			if (this.chain.get(i).matches(this.request))
+				return i;
+		return -1;
+	}
+	
+	@Benchmark
+	public int routeTable() {
+		return SecurityRoutes.TABLE.match(this.request.getMethod(), RouteAuthorizationManager.path(this.request));
+	}
+	
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(SecurityMatcherBenchmark.class.getSimpleName())
+				.build())
+				.run();
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,194 @@
+package com.selimhorri.app.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Load test of the request execution modes: N concurrent requests against an embedded Tomcat whose
+ * servlet blocks on a slow upstream, once on Boot's default 200 worker pool and once with the
+ * virtual thread executor VirtualThreadsConfig installs. The upstream stub runs in a child JVM so
+ * both sides of its sockets don't count against one process' descriptor limit.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.selimhorri.app.benchmark.VirtualThreadLoadBenchmark -Dexec.args="5000 200"},
+ * arguments are the concurrency and the upstream delay in milliseconds.
+ */
+public class VirtualThreadLoadBenchmark {
+	
+	private static final int PLATFORM_MAX_THREADS = 200;
+	private static final byte[] BODY = "{\"collection\":[]}".getBytes(StandardCharsets.UTF_8);
+	
+	public static void main(final String[] args) throws Exception {
+		if (args.length > 0 && "upstream".equals(args[0])) {
+			upstream(Long.parseLong(args[1]));
+			return;
+		}
+		final int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		final long delayMillis = args.length > 1 ? Long.parseLong(args[1]) : 200L;
+		
+		final Process upstream = new ProcessBuilder(ProcessHandle.current().info().command().orElse("java"),
+				"-cp", System.getProperty("java.class.path"), VirtualThreadLoadBenchmark.class.getName(),
+				"upstream", String.valueOf(delayMillis))
+				.redirectError(ProcessBuilder.Redirect.INHERIT)
+				.start();
+		try {
+			final int upstreamPort = Integer.parseInt(new BufferedReader(
+					new InputStreamReader(upstream.getInputStream(), StandardCharsets.US_ASCII)).readLine());
+			System.out.printf("%d concurrent requests, upstream answering after %d ms%n", concurrency, delayMillis);
+			for (final boolean virtual : new boolean[] { false, true })
+				run(virtual, concurrency, upstreamPort);
+		}
+		finally {
+			upstream.destroy();
+		}
+	}
+	
+	private static void run(final boolean virtual, final int concurrency, final int upstreamPort) throws Exception {
+		final Tomcat tomcat = tomcat(virtual, "http://127.0.0.1:" + upstreamPort + "/");
+		tomcat.start();
+		final URI uri = URI.create("http://127.0.0.1:" + tomcat.getConnector().getLocalPort() + "/products");
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			final HttpClient httpClient = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.executor(clients)
+					.build();
+			final long[] latencies = new long[concurrency];
+			final AtomicInteger failed = new AtomicInteger();
+			final CountDownLatch start = new CountDownLatch(1);
+			final CountDownLatch done = new CountDownLatch(concurrency);
+			for (int i = 0; i < concurrency; i++) {
+				final int request = i;
+				clients.execute(() -> {
+					try {
+						start.await();
+						final long begin = System.nanoTime();
+						final HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri)
+								.timeout(Duration.ofMinutes(2))
+								.build(), HttpResponse.BodyHandlers.discarding());
+						latencies[request] = System.nanoTime() - begin;
+						if (response.statusCode() != 200)
+							failed.incrementAndGet();
+					}
+					catch (IOException | InterruptedException e) {
+						latencies[request] = -1L;
+						failed.incrementAndGet();
+					}
+					finally {
+						done.countDown();
+					}
+				});
+			}
+			final long begin = System.nanoTime();
+			start.countDown();
+			done.await();
+			final double seconds = (System.nanoTime() - begin) / 1e9;
+			final long[] succeeded = Arrays.stream(latencies).filter(latency -> latency >= 0L).sorted().toArray();
+			System.out.printf("%-9s %6.2f s  %8.0f req/s  p50 %7.0f ms  p99 %7.0f ms  max %7.0f ms  failed %d%n",
+					virtual ? "virtual" : "platform", seconds, concurrency / seconds, percentile(succeeded, 0.50),
+					percentile(succeeded, 0.99), percentile(succeeded, 1.0), failed.get());
+		}
+		finally {
+			tomcat.stop();
+			tomcat.destroy();
+		}
+	}
+	
+	private static Tomcat tomcat(final boolean virtual, final String upstream) {
+		final Tomcat tomcat = new Tomcat();
+		tomcat.setBaseDir(System.getProperty("java.io.tmpdir") + "/vt-load-" + virtual);
+		final Connector connector = new Connector("org.apache.coyote.http11.Http11NioProtocol");
+		connector.setPort(0);
+		connector.setProperty("maxThreads", String.valueOf(PLATFORM_MAX_THREADS));
+		connector.setProperty("maxConnections", "20000");
+		connector.setProperty("acceptCount", "10000");
+		if (virtual)
+			connector.getProtocolHandler().setExecutor(
+					Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0L).factory()));
+		tomcat.setConnector(connector);
+		final Context context = tomcat.addContext("", null);
+		Tomcat.addServlet(context, "proxy", new HttpServlet() {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+				// a blocking upstream call, as the Feign clients and AuthUtil make
+				final HttpURLConnection connection = (HttpURLConnection) URI.create(upstream).toURL().openConnection();
+				try (InputStream in = connection.getInputStream()) {
+					response.setContentType("application/json");
+					in.transferTo(response.getOutputStream());
+				}
+			}
+			
+		});
+		context.addServletMappingDecoded("/*", "proxy");
+		return tomcat;
+	}
+	
+	private static void upstream(final long delayMillis) throws IOException {
+		final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 10000);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext("/", exchange -> {
+			try {
+				Thread.sleep(delayMillis);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, BODY.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(BODY);
+			}
+		});
+		server.start();
+		System.out.println(server.getAddress().getPort());
+		System.out.flush();
+	}
+	
+	private static double percentile(final long[] sorted, final double percentile) {
+		if (sorted.length == 0)
+			return Double.NaN;
+		return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
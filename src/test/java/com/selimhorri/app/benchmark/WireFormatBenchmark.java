@@ -0,0 +1,119 @@
+package com.selimhorri.app.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Encode and decode time of the collection wrappers as JSON, CBOR and Smile, built the way
+ * WireFormatConfig builds its mappers. {@link #main} prints the payload sizes before the run.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.selimhorri.app.benchmark.WireFormatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+	
+	private static final String[] WRAPPERS = { "products", "orders", "carts", "payments", "favourites", "users" };
+	private static final String[] FORMATS = { "json", "cbor", "smile" };
+	
+	@Param({ "products", "orders", "carts", "payments", "favourites", "users" })
+	public String wrapper;
+	
+	@Param({ "json", "cbor", "smile" })
+	public String format;
+	
+	private ObjectMapper objectMapper;
+	private Object response;
+	private byte[] payload;
+	
+	@Setup
+	public void setUp() throws IOException {
+		this.objectMapper = mapper(this.format);
+		this.response = ResponseSerializationBenchmark.response(this.wrapper);
+		this.payload = this.objectMapper.writeValueAsBytes(this.response);
+	}
+	
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return this.objectMapper.writeValueAsBytes(this.response);
+	}
+	
+	@Benchmark
+	public Object decode() throws IOException {
+		return this.objectMapper.readValue(this.payload, this.response.getClass());
+	}
+	
+	private static ObjectMapper mapper(final String format) {
+		final Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+				.modulesToInstall(new BlackbirdModule());
+		switch (format) {
+			case "json":
+				return builder.build();
+			case "cbor":
+				return builder.factory(new CBORFactory()).build();
+			case "smile":
+				return builder.factory(new SmileFactory()).build();
+			default:
+				throw new IllegalArgumentException(format);
+		}
+	}
+	
+	private static void printPayloadSizes() throws IOException {
+		System.out.printf("%-12s%10s%10s%10s%n", "bytes", FORMATS[0], FORMATS[1], FORMATS[2]);
+		for (final String wrapper : WRAPPERS) {
+			final Object response = ResponseSerializationBenchmark.response(wrapper);
+			System.out.printf("%-12s", wrapper);
+			for (final String format : FORMATS)
+				System.out.printf("%10d", mapper(format).writeValueAsBytes(response).length);
+			System.out.println();
+		}
+	}
+	
+	public static void main(final String[] args) throws IOException, RunnerException {
+		printPayloadSizes();
+		new Runner(new OptionsBuilder()
+				.include(WireFormatBenchmark.class.getSimpleName())
+				.build())
+				.run();
+	}
+	
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
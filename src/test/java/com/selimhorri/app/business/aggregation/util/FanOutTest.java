@@ -0,0 +1,62 @@
+package com.selimhorri.app.business.aggregation.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+class FanOutTest {
+	
+	private final ExecutorService executorService = Executors.newCachedThreadPool();
+	
+	@AfterEach
+	void tearDown() {
+		this.executorService.shutdownNow();
+	}
+	
+	@Test
+	void branchMissingTheDeadlineIsInterrupted() throws InterruptedException {
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final FanOut fanOut = new FanOut(new TaskExecutorAdapter(this.executorService), TimeUnit.MILLISECONDS.toNanos(50));
+		final var slow = fanOut.fork("slow", () -> {
+			try {
+				Thread.sleep(10_000L);
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return "late";
+		});
+		
+		assertThat(fanOut.join(slow)).isNull();
+		assertThat(fanOut.getUnavailable()).containsExactly("slow");
+		assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+	}
+	
+	@Test
+	void rejectedBranchIsReportedUnavailable() {
+		final FanOut fanOut = new FanOut(new TaskExecutorAdapter(task -> {
+			throw new RejectedExecutionException("saturated");
+		}), TimeUnit.SECONDS.toNanos(1));
+		final var rejected = fanOut.fork("payments", () -> "never");
+		
+		assertThat(fanOut.join(rejected)).isNull();
+		assertThat(fanOut.getUnavailable()).containsExactly("payments");
+	}
+	
+	@Test
+	void branchesSeeTheirRemainingTime() {
+		final FanOut fanOut = new FanOut(new TaskExecutorAdapter(this.executorService), TimeUnit.SECONDS.toNanos(1));
+		
+		assertThat(fanOut.join(fanOut.fork("remaining", FanOut::remainingMillis))).isBetween(1L, 1000L);
+		assertThat(FanOut.remainingMillis()).isEqualTo(-1L);
+	}
+	
+}
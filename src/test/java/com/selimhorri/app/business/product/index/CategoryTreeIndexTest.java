@@ -0,0 +1,103 @@
+package com.selimhorri.app.business.product.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+
+class CategoryTreeIndexTest {
+	
+	private static CategoryDto category(final int categoryId, final Integer parentId, final String title,
+			final int... productIds) {
+		return CategoryDto.builder()
+				.categoryId(categoryId)
+				.categoryTitle(title)
+				.parentCategoryDto(parentId == null ? null : CategoryDto.builder().categoryId(parentId).build())
+				.productDtos(IntStream.of(productIds)
+						.mapToObj(productId -> ProductDto.builder().productId(productId).build())
+						.collect(Collectors.toSet()))
+				.build();
+	}
+	
+	private static List<CategoryDto> catalog() {
+		return List.of(
+				category(1, null, "Electronics", 10),
+				category(2, 1, "Computers", 20, 21),
+				category(3, 2, "Laptops", 30),
+				category(4, 1, "Phones", 40),
+				category(5, null, "Books", 50));
+	}
+	
+	@Test
+	void findProductIdsUnderReturnsWholeSubtree() {
+		final CategoryTreeIndex index = CategoryTreeIndex.of(catalog());
+		assertThat(index.findProductIdsUnder(1)).containsExactlyInAnyOrder(10, 20, 21, 30, 40);
+		assertThat(index.findProductIdsUnder(2)).containsExactlyInAnyOrder(20, 21, 30);
+		assertThat(index.findProductIdsUnder(5)).containsExactly(50);
+		assertThat(index.findProductIdsUnder(99)).isNull();
+		assertThat(index.isDescendant(3, 1)).isTrue();
+		assertThat(index.isDescendant(4, 2)).isFalse();
+	}
+	
+	@Test
+	void findBreadcrumbGoesFromRootToCategory() {
+		final CategoryTreeIndex index = CategoryTreeIndex.of(catalog());
+		assertThat(index.findBreadcrumb(3)).extracting(CategoryDto::getCategoryTitle)
+				.containsExactly("Electronics", "Computers", "Laptops");
+		assertThat(index.findBreadcrumb(99)).isEmpty();
+	}
+	
+	@Test
+	void refreshReusesIndexWhenShapeIsUnchanged() {
+		final CategoryTreeIndex index = CategoryTreeIndex.of(catalog());
+		assertThat(index.refresh(catalog())).isSameAs(index);
+		
+		final List<CategoryDto> renamed = catalog().stream()
+				.map(categoryDto -> categoryDto.getCategoryId() == 3 ? category(3, 2, "Notebooks", 30, 31) : categoryDto)
+				.collect(Collectors.toList());
+		final CategoryTreeIndex refreshed = index.refresh(renamed);
+		assertThat(refreshed).isNotSameAs(index);
+		assertThat(refreshed.findBreadcrumb(3)).extracting(CategoryDto::getCategoryTitle).endsWith("Notebooks");
+		assertThat(refreshed.findProductIdsUnder(1)).containsExactlyInAnyOrder(10, 20, 21, 30, 31, 40);
+		
+		final List<CategoryDto> moved = catalog().stream()
+				.map(categoryDto -> categoryDto.getCategoryId() == 4 ? category(4, 5, "Phones", 40) : categoryDto)
+				.collect(Collectors.toList());
+		assertThat(index.refresh(moved).findProductIdsUnder(5)).containsExactlyInAnyOrder(40, 50);
+	}
+	
+	@Test
+	void refreshDoesNotTrustEqualFingerprints() {
+		// "Aa" and "BB" share a String hash code
+		final CategoryTreeIndex index = CategoryTreeIndex.of(List.of(category(1, null, "Aa", 10)));
+		final CategoryTreeIndex refreshed = index.refresh(List.of(category(1, null, "BB", 10)));
+		assertThat(refreshed).isNotSameAs(index);
+		assertThat(refreshed.findBreadcrumb(1)).extracting(CategoryDto::getCategoryTitle).containsExactly("BB");
+	}
+	
+	@Test
+	void parentCycleIsBrokenInsteadOfLooping() {
+		final CategoryTreeIndex index = CategoryTreeIndex.of(List.of(category(1, 2, "A", 1), category(2, 1, "B", 2)));
+		assertThat(index.size()).isEqualTo(2);
+		assertThat(Set.of(index.findBreadcrumb(1).size(), index.findBreadcrumb(2).size())).containsExactlyInAnyOrder(1, 2);
+		assertThat(index.refresh(List.of(category(1, 2, "A", 1), category(2, 1, "B", 2)))).isSameAs(index);
+	}
+	
+	@Test
+	void childBelowCycleKeepsItsParent() {
+		// 1 sorts ahead of the cycle 2 <-> 3 it hangs off
+		final CategoryTreeIndex index = CategoryTreeIndex.of(List.of(
+				category(1, 3, "Child", 10), category(2, 3, "B", 20), category(3, 2, "C", 30)));
+		assertThat(index.findBreadcrumb(1)).extracting(CategoryDto::getCategoryId).containsExactly(3, 1);
+		assertThat(index.isDescendant(1, 3)).isTrue();
+		assertThat(index.findProductIdsUnder(3)).containsExactlyInAnyOrder(10, 20, 30);
+	}
+	
+}
@@ -0,0 +1,31 @@
+package com.selimhorri.app.business.product.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixSuggestionIndexTest {
+	
+	private final PrefixSuggestionIndex index = PrefixSuggestionIndex.builder()
+			.add(1, "Lenovo ThinkPad X1", "LEN-001", 5L)
+			.add(2, "Lenovo Legion", "LEN-002", 50L)
+			.add(3, "Logitech Mouse", "LOG-100", 20L)
+			.add(4, "Asus ThinkBook clone", "ASU-004", 1L)
+			.build();
+	
+	@Test
+	void suggestReturnsMostPopularFirst() {
+		assertThat(this.index.suggest("le", 10)).containsExactly(2, 1);
+		assertThat(this.index.suggest("l", 2)).containsExactly(2, 3);
+		assertThat(this.index.suggest("LEN-00", 10)).containsExactly(2, 1);
+	}
+	
+	@Test
+	void suggestMatchesFromInnerWordsWithoutDuplicates() {
+		assertThat(this.index.suggest("think", 10)).containsExactly(1, 4);
+		assertThat(this.index.suggest("lenovo think", 10)).containsExactly(1);
+		assertThat(this.index.suggest("zzz", 10)).isEmpty();
+		assertThat(PrefixSuggestionIndex.EMPTY.suggest("a", 10)).isEmpty();
+	}
+	
+}
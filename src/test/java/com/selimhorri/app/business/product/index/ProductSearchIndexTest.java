@@ -0,0 +1,77 @@
+package com.selimhorri.app.business.product.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+
+class ProductSearchIndexTest {
+	
+	private ProductSearchIndex index;
+	
+	private static ProductDto product(final int productId, final String title, final String sku,
+			final String category, final double price, final int quantity) {
+		return ProductDto.builder()
+				.productId(productId)
+				.productTitle(title)
+				.sku(sku)
+				.priceUnit(price)
+				.quantity(quantity)
+				.categoryDto(CategoryDto.builder().categoryTitle(category).build())
+				.build();
+	}
+	
+	@BeforeEach
+	void setUp() {
+		this.index = new ProductSearchIndex();
+		this.index.apply(List.of(
+				product(1, "Asus ROG Laptop", "ASU-001", "Computers", 1500.0, 3),
+				product(2, "Lenovo ThinkPad Laptop", "LEN-777", "Computers", 1100.0, 0),
+				product(3, "Cámara Canon", "CAN-123", "Photography", 700.0, 5)), Set.of());
+	}
+	
+	@Test
+	void searchMatchesExactPrefixAndTypos() {
+		assertThat(this.index.search("laptop", null, null, false, 10)).containsExactly(1, 2);
+		assertThat(this.index.search("lap", null, null, false, 10)).containsExactly(1, 2);
+		assertThat(this.index.search("loptap", null, null, false, 10)).isEmpty();
+		assertThat(this.index.search("lapotp", null, null, false, 10)).containsExactly(1, 2);
+		assertThat(this.index.search("thinkpd laptop", null, null, false, 10)).containsExactly(2);
+		assertThat(this.index.search("camara", null, null, false, 10)).containsExactly(3);
+		assertThat(this.index.search("len-777", null, null, false, 10)).containsExactly(2);
+		assertThat(this.index.search("computers", null, null, false, 10)).containsExactly(1, 2);
+	}
+	
+	@Test
+	void searchAppliesPriceAndStockFilters() {
+		assertThat(this.index.search("laptop", 1200.0, null, false, 10)).containsExactly(1);
+		assertThat(this.index.search("laptop", null, 1200.0, false, 10)).containsExactly(2);
+		assertThat(this.index.search("laptop", null, null, true, 10)).containsExactly(1);
+	}
+	
+	@Test
+	void applyUpdatesAndRemovesIncrementally() {
+		this.index.apply(List.of(product(1, "Asus ROG Desktop", "ASU-001", "Computers", 1500.0, 3)), Set.of(2));
+		assertThat(this.index.search("laptop", null, null, false, 10)).isEmpty();
+		assertThat(this.index.search("desktop", null, null, false, 10)).containsExactly(1);
+		assertThat(this.index.size()).isEqualTo(2);
+	}
+	
+	@Test
+	void prefixExpansionKeepsTheWidestTerms() {
+		final ProductSearchIndex capped = new ProductSearchIndex(1);
+		capped.apply(List.of(
+				product(10, "Zap", "S-10", "Audio", 10.0, 1),
+				product(11, "Zoom", "S-11", "Audio", 10.0, 1),
+				product(12, "Zoom", "S-12", "Audio", 10.0, 1)), Set.of());
+		assertThat(capped.search("z", null, null, false, 10)).containsExactlyInAnyOrder(11, 12);
+		assertThat(capped.search("zap", null, null, false, 10)).containsExactly(10);
+	}
+	
+}
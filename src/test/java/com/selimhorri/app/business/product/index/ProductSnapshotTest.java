@@ -0,0 +1,53 @@
+package com.selimhorri.app.business.product.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+
+class ProductSnapshotTest {
+	
+	private static ProductDto product(final int productId, final String title, final Double price, final Integer quantity) {
+		return ProductDto.builder()
+				.productId(productId)
+				.productTitle(title)
+				.sku("SKU-" + productId)
+				.priceUnit(price)
+				.quantity(quantity)
+				.categoryDto(CategoryDto.builder().categoryId(7).categoryTitle("Computers").build())
+				.build();
+	}
+	
+	@Test
+	void roundTripsProductsSortedById() {
+		final List<ProductDto> products = List.of(
+				product(9, "Cámara Canon", 700.0, 5),
+				product(2, "Asus ROG Laptop", null, null),
+				product(5, null, 1100.0, 0));
+		final ProductSnapshot snapshot = ProductSnapshot.of(products, true);
+		
+		assertThat(snapshot.size()).isEqualTo(3);
+		assertThat(snapshot.isOffHeap()).isTrue();
+		assertThat(snapshot.productIdAt(0)).isEqualTo(2);
+		assertThat(snapshot.find(4)).isNegative();
+		products.forEach(productDto ->
+				assertThat(snapshot.toDto(snapshot.find(productDto.getProductId()))).isEqualTo(productDto));
+		
+		final ProductSnapshot wrapped = ProductSnapshot.wrap(snapshot.asReadOnlyBuffer());
+		assertThat(wrapped.cursor().moveTo(wrapped.find(9)).getProductTitle()).isEqualTo("Cámara Canon");
+	}
+	
+	@Test
+	void sameRowComparesAcrossSnapshots() {
+		final ProductSnapshot before = ProductSnapshot.of(List.of(product(1, "Laptop", 10.0, 1), product(2, "Mouse", 5.0, 1)), false);
+		final ProductSnapshot after = ProductSnapshot.of(List.of(product(1, "Laptop", 10.0, 1), product(2, "Mouse", 6.0, 1)), false);
+		
+		assertThat(after.sameRow(0, before, 0)).isTrue();
+		assertThat(after.sameRow(1, before, 1)).isFalse();
+	}
+	
+}
@@ -0,0 +1,58 @@
+package com.selimhorri.app.business.product.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.product.index.ProductSnapshot;
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.config.cache.CatalogCacheProperties;
+
+class CatalogSnapshotServiceImplTest {
+	
+	@TempDir
+	Path directory;
+	
+	private CatalogSnapshotServiceImpl catalogSnapshotService;
+	
+	@BeforeEach
+	void setUp() {
+		final CatalogCacheProperties catalogCacheProperties = new CatalogCacheProperties();
+		catalogCacheProperties.setSnapshotDirectory(this.directory.toString());
+		this.catalogSnapshotService = new CatalogSnapshotServiceImpl(catalogCacheProperties, new ObjectMapper());
+	}
+	
+	@Test
+	void productsAreMappedBackFromDisk() {
+		assertThat(this.catalogSnapshotService.loadProducts()).isEmpty();
+		final ProductDto productDto = ProductDto.builder().productId(3).productTitle("Laptop").priceUnit(10.0).build();
+		this.catalogSnapshotService.saveProducts(ProductSnapshot.of(List.of(productDto), true));
+		
+		final ProductSnapshot restored = this.catalogSnapshotService.loadProducts().orElseThrow();
+		assertThat(restored.toDto(restored.find(3))).isEqualTo(productDto);
+	}
+	
+	@Test
+	void categoriesKeepOnlyIdsOfRelatives() {
+		this.catalogSnapshotService.saveCategories(List.of(CategoryDto.builder()
+				.categoryId(2)
+				.categoryTitle("Laptops")
+				.parentCategoryDto(CategoryDto.builder().categoryId(1).categoryTitle("Computers").build())
+				.productDtos(Set.of(ProductDto.builder().productId(3).productTitle("Laptop").build()))
+				.build()));
+		
+		final CategoryDto restored = this.catalogSnapshotService.loadCategories().orElseThrow().get(0);
+		assertThat(restored.getParentCategoryDto().getCategoryId()).isEqualTo(1);
+		assertThat(restored.getParentCategoryDto().getCategoryTitle()).isNull();
+		assertThat(restored.getProductDtos()).extracting(ProductDto::getProductId).containsExactly(3);
+	}
+	
+}
@@ -0,0 +1,117 @@
+package com.selimhorri.app.business.query.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.aggregation.util.FanOut;
+import com.selimhorri.app.business.aggregation.util.FanOutUtil;
+import com.selimhorri.app.business.query.model.QueryRequest;
+import com.selimhorri.app.business.query.model.QueryRoot;
+import com.selimhorri.app.business.query.resolver.QueryEdge;
+import com.selimhorri.app.business.query.resolver.QueryResolver;
+import com.selimhorri.app.config.executor.AggregationProperties;
+import com.selimhorri.app.config.query.QueryProperties;
+import com.selimhorri.app.exception.wrapper.UnauthorizedException;
+
+class QueryServiceImplTest {
+	
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<String> requested = Collections.synchronizedList(new ArrayList<>());
+	
+	private QueryServiceImpl queryService;
+	
+	@BeforeEach
+	void setUp() {
+		final Map<String, Map<String, Object>> carts = Map.of(
+				"1", Map.of("cartId", 1, "userId", 7),
+				"2", Map.of("cartId", 2, "userId", 8));
+		final Map<String, Map<String, Object>> orders = Map.of(
+				"10", Map.of("orderId", 10, "cart", Map.of("cartId", 1)),
+				"20", Map.of("orderId", 20, "cart", Map.of("cartId", 2)));
+		this.queryService = new QueryServiceImpl(
+				List.of(this.resolver("carts", carts, Map.of(), null, List.of("/userId")),
+						this.resolver("orders", orders, Map.of("cart", new QueryEdge("carts", "/cart/cartId")), "cart", List.of())),
+				new FanOutUtil(new TaskExecutorAdapter(Runnable::run), new AggregationProperties()),
+				this.objectMapper,
+				new QueryProperties());
+	}
+	
+	@Test
+	void ownerIsFollowedThroughTheOwnerEdge() {
+		final var queryResponse = this.queryService.execute(this.query("orders", "10"), "7", false);
+		assertThat(queryResponse.getData().get("orders").get(0).get("orderId").asInt()).isEqualTo(10);
+	}
+	
+	@Test
+	void resourcesOfOtherUsersAreRejected() {
+		assertThatThrownBy(() -> this.queryService.execute(this.query("orders", "10", "20"), "7", false))
+				.isInstanceOf(UnauthorizedException.class);
+		assertThat(this.queryService.execute(this.query("orders", "10", "20"), "7", true).getData().get("orders"))
+				.hasSize(2);
+	}
+	
+	@Test
+	void nonNumericIdsAreNeverSentUpstream() {
+		final var queryResponse = this.queryService.execute(this.query("orders", "1/../../users/8"), "7", false);
+		assertThat(queryResponse.getData().get("orders").get(0).isNull()).isTrue();
+		assertThat(this.requested).isEmpty();
+	}
+	
+	private QueryRequest query(final String resource, final String... ids) {
+		return QueryRequest.builder()
+				.roots(List.of(QueryRoot.builder()
+						.resource(resource)
+						.ids(List.of(ids))
+						.fields(this.objectMapper.createObjectNode().put("orderId", true))
+						.build()))
+				.build();
+	}
+	
+	private QueryResolver resolver(final String resource, final Map<String, Map<String, Object>> documents,
+			final Map<String, QueryEdge> edges, final String ownerEdge, final List<String> ownerPointers) {
+		return new QueryResolver() {
+			
+			@Override
+			public String getResource() {
+				return resource;
+			}
+			
+			@Override
+			public Supplier<Map<String, Object>> fork(final Set<String> ids, final FanOut fanOut) {
+				return QueryResolver.forkEach(resource, ids, fanOut, id -> {
+					requested.add(resource + '/' + id);
+					return documents.get(id);
+				});
+			}
+			
+			@Override
+			public Map<String, QueryEdge> getEdges() {
+				return edges;
+			}
+			
+			@Override
+			public String getOwnerEdge() {
+				return ownerEdge;
+			}
+			
+			@Override
+			public List<String> getOwnerPointers() {
+				return ownerPointers;
+			}
+		
+		};
+	}
+	
+}
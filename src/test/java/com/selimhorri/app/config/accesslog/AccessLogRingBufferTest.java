@@ -0,0 +1,53 @@
+package com.selimhorri.app.config.accesslog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class AccessLogRingBufferTest {
+	
+	@Test
+	void drainsInOrderAndDropsWhenFull() {
+		final AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(4);
+		for (int i = 0; i < 5; i++)
+			ringBuffer.offer(1_000L + i, 250L, 200, "GET", "/app/api/products/" + i, i);
+		
+		final List<String> lines = new ArrayList<>();
+		assertThat(ringBuffer.drain((timestamp, durationMicros, status, method, userId, uri, uriLength) ->
+				lines.add(method + " " + new String(uri, 0, uriLength, StandardCharsets.US_ASCII) + " " + userId), 10))
+				.isEqualTo(4);
+		assertThat(lines).containsExactly("GET /app/api/products/0 0", "GET /app/api/products/1 1",
+				"GET /app/api/products/2 2", "GET /app/api/products/3 3");
+		assertThat(ringBuffer.getDropped()).isEqualTo(1L);
+		assertThat(ringBuffer.offer(2_000L, 1L, 404, "BREW", "/x", -1)).isTrue();
+	}
+	
+	@Test
+	void concurrentProducersLoseNothingWhileTheConsumerKeepsUp() throws InterruptedException {
+		final AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(1024);
+		final List<Thread> producers = new ArrayList<>();
+		for (int p = 0; p < 4; p++) {
+			final int producer = p;
+			producers.add(new Thread(() -> {
+				for (int i = 0; i < 10_000; i++)
+					while (!ringBuffer.offer(i, 0L, 200, "POST", "/", producer * 10_000 + i))
+						Thread.onSpinWait();
+			}));
+		}
+		producers.forEach(Thread::start);
+		final Set<Integer> seen = new HashSet<>();
+		while (seen.size() < 40_000)
+			ringBuffer.drain((timestamp, durationMicros, status, method, userId, uri, uriLength) -> seen.add(userId), 256);
+		for (final Thread producer : producers)
+			producer.join();
+		
+		assertThat(ringBuffer.getPending()).isZero();
+	}
+	
+}
@@ -0,0 +1,50 @@
+package com.selimhorri.app.config.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class EncodedPayloadTest {
+	
+	private static final byte[] BODY = "{\"collection\":[{\"productId\":1,\"productTitle\":\"Product\"}]}".repeat(20)
+			.getBytes(StandardCharsets.UTF_8);
+	
+	@Test
+	void gzipIsServedOnlyWhenAccepted() throws IOException {
+		final EncodedPayload payload = EncodedPayload.of("application/json", BODY);
+		
+		final MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "br, gzip;q=0.8");
+		final MockHttpServletResponse gzipped = new MockHttpServletResponse();
+		payload.writeTo(request, gzipped);
+		assertThat(gzipped.getHeader("Content-Encoding")).isEqualTo("gzip");
+		assertThat(gzipped.getContentLength()).isEqualTo(payload.getGzip().length).isLessThan(BODY.length);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+			assertThat(in.readAllBytes()).isEqualTo(BODY);
+		}
+		
+		final MockHttpServletResponse identity = new MockHttpServletResponse();
+		payload.writeTo(new MockHttpServletRequest(), identity);
+		assertThat(identity.getHeader("Content-Encoding")).isNull();
+		assertThat(identity.getContentAsByteArray()).isEqualTo(BODY);
+		assertThat(identity.getHeader("Vary")).isEqualTo("Accept-Encoding");
+	}
+	
+	@Test
+	void acceptEncodingIsParsed() {
+		assertThat(GzipStreams.accepts("gzip, deflate")).isTrue();
+		assertThat(GzipStreams.accepts("*")).isTrue();
+		assertThat(GzipStreams.accepts("GZIP;q=0.5")).isTrue();
+		assertThat(GzipStreams.accepts("gzip;q=0")).isFalse();
+		assertThat(GzipStreams.accepts("identity, br")).isFalse();
+		assertThat(GzipStreams.accepts(null)).isFalse();
+	}
+	
+}
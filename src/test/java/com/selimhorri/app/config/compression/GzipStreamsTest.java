@@ -0,0 +1,39 @@
+package com.selimhorri.app.config.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+class GzipStreamsTest {
+	
+	@Test
+	void gzippedBodiesAreInflatedAndEmptyOnesStayEmpty() throws IOException {
+		final byte[] body = "{\"collection\":[]}".repeat(100).getBytes(StandardCharsets.UTF_8);
+		final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(body);
+		}
+		try (InputStream in = GzipStreams.decoding(new ByteArrayInputStream(compressed.toByteArray()))) {
+			assertThat(in.readAllBytes()).isEqualTo(body);
+		}
+		try (InputStream in = GzipStreams.decoding(new ByteArrayInputStream(new byte[0]))) {
+			assertThat(in.read()).isEqualTo(-1);
+		}
+	}
+	
+	@Test
+	void contentEncodingIsMatchedIgnoringCase() {
+		assertThat(GzipStreams.isGzip(List.of("GZIP"))).isTrue();
+		assertThat(GzipStreams.isGzip(List.of("br"))).isFalse();
+		assertThat(GzipStreams.isGzip(null)).isFalse();
+	}
+	
+}
@@ -0,0 +1,106 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.selimhorri.app.business.auth.model.request.RevokeTokenRequest;
+import com.selimhorri.app.business.auth.service.impl.AuthenticationServiceImpl;
+import com.selimhorri.app.config.jwt.JwtProperties;
+import com.selimhorri.app.jwt.model.JwtClaims;
+import com.selimhorri.app.jwt.model.JwtTokenPair;
+import com.selimhorri.app.jwt.service.impl.JwtKeyServiceImpl;
+import com.selimhorri.app.jwt.service.impl.JwtServiceImpl;
+import com.selimhorri.app.jwt.service.impl.TokenRevocationServiceImpl;
+import com.selimhorri.app.jwt.util.JwtCodec;
+import com.selimhorri.app.jwt.util.impl.JwtUtilImpl;
+import com.selimhorri.app.jwt.util.impl.LeanJwtCodec;
+
+class JwtRequestFilterTest {
+	
+	private static final UserDetails USER = User.withUsername("selim")
+			.password("")
+			.authorities("ROLE_USER")
+			.build();
+	
+	private JwtCodec jwtCodec;
+	private JwtServiceImpl jwtService;
+	private AuthenticationServiceImpl authenticationService;
+	private JwtRequestFilter jwtRequestFilter;
+	
+	@BeforeEach
+	void setUp() {
+		final JwtProperties jwtProperties = new JwtProperties();
+		this.jwtCodec = new LeanJwtCodec(new JwtKeyServiceImpl(jwtProperties));
+		this.jwtService = new JwtServiceImpl(new JwtUtilImpl(this.jwtCodec, jwtProperties));
+		final TokenRevocationServiceImpl tokenRevocationService = new TokenRevocationServiceImpl(jwtProperties);
+		this.authenticationService = new AuthenticationServiceImpl(null, username -> USER, this.jwtService,
+				tokenRevocationService, null);
+		this.jwtRequestFilter = new JwtRequestFilter(username -> USER, this.jwtService, tokenRevocationService);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+	
+	@Test
+	void accessTokensAuthenticateWithTheirRoles() throws Exception {
+		final Authentication authentication = this.filter(this.jwtService.generateToken(USER, "1"));
+		
+		assertThat(authentication.getName()).isEqualTo("selim");
+		assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+	}
+	
+	@Test
+	void revokedAccessTokensAreRejected() throws Exception {
+		final JwtTokenPair leaked = this.jwtService.generateTokenPair(USER, "1");
+		final JwtTokenPair loggedOut = this.jwtService.generateTokenPair(USER, "1");
+		assertThat(this.filter(leaked.getAccessToken())).isNotNull();
+		
+		this.authenticationService.revoke(new RevokeTokenRequest(leaked.getAccessToken()));
+		this.authenticationService.revoke(new RevokeTokenRequest(loggedOut.getRefreshToken()));
+		
+		assertThat(this.filter(leaked.getAccessToken())).isNull();
+		assertThat(this.filter(loggedOut.getAccessToken())).isNull();
+		assertThat(this.filter(this.jwtService.generateToken(USER, "1"))).isNotNull();
+	}
+	
+	@Test
+	void expiredOrMalformedTokensLeaveTheRequestAnonymous() throws Exception {
+		final long now = System.currentTimeMillis() / 1000L;
+		final String expired = this.jwtCodec.encode(JwtClaims.builder()
+				.type(JwtClaims.ACCESS)
+				.subject("selim")
+				.roles(List.of("ROLE_USER"))
+				.issuedAt(now - 120L)
+				.expiration(now - 60L)
+				.build());
+		
+		assertThat(this.filter(expired)).isNull();
+		assertThat(this.filter("not.a.token")).isNull();
+	}
+	
+	private Authentication filter(final String token) throws Exception {
+		SecurityContextHolder.clearContext();
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+		request.setServletPath("/api/users/1");
+		request.addHeader("Authorization", "Bearer " + token);
+		final MockFilterChain filterChain = new MockFilterChain();
+		this.jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+		assertThat(filterChain.getRequest()).isNotNull();
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+	
+}
@@ -0,0 +1,72 @@
+package com.selimhorri.app.config.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RestTemplateMetricsInterceptorTest {
+	
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	
+	private RestTemplate restTemplate;
+	private MockRestServiceServer server;
+	
+	@BeforeEach
+	void setUp() {
+		final RestTemplateMetricsInterceptor interceptor = new RestTemplateMetricsInterceptor(
+				new DownstreamMetrics(this.meterRegistry));
+		this.restTemplate = new RestTemplate();
+		this.restTemplate.setUriTemplateHandler(interceptor.capturing(this.restTemplate.getUriTemplateHandler()));
+		this.restTemplate.getInterceptors().add(interceptor);
+		this.server = MockRestServiceServer.bindTo(this.restTemplate).build();
+	}
+	
+	@AfterEach
+	void tearDown() {
+		DownstreamMetrics.unbindRoute();
+	}
+	
+	@Test
+	void usernamesShareTheMeterOfTheirTemplate() {
+		this.server.expect(requestTo("http://user-service/api/credentials/username/alice"))
+				.andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+		this.server.expect(requestTo("http://user-service/api/credentials/username/bob"))
+				.andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+		
+		DownstreamMetrics.bindRoute("/api/carts/{cartId}");
+		this.restTemplate.getForObject("http://user-service/api/credentials/username/{username}", String.class, "alice");
+		this.restTemplate.getForObject("http://user-service/api/credentials/username/{username}", String.class, "bob");
+		
+		assertThat(this.meterRegistry.find(DownstreamMetrics.METER_NAME).timers())
+				.singleElement()
+				.satisfies(timer -> {
+					assertThat(timer.getId().getTag("method")).isEqualTo("GET /api/credentials/username/{username}");
+					assertThat(timer.getId().getTag("route")).isEqualTo("/api/carts/{cartId}");
+					assertThat(timer.count()).isEqualTo(2);
+				});
+	}
+	
+	@Test
+	void concatenatedIdsAreStillTemplated() {
+		this.server.expect(requestTo("http://order-service/api/carts/7"))
+				.andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+		
+		this.restTemplate.getForObject("http://order-service/api/carts/7", String.class);
+		
+		assertThat(this.meterRegistry.get(DownstreamMetrics.METER_NAME).timer().getId())
+				.satisfies(id -> {
+					assertThat(id.getTag("method")).isEqualTo("GET /api/carts/{id}");
+					assertThat(id.getTag("route")).isEqualTo("NONE");
+				});
+	}
+	
+}
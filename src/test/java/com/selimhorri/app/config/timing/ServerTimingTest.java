@@ -0,0 +1,40 @@
+package com.selimhorri.app.config.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.config.timing.ServerTiming.Span;
+
+class ServerTimingTest {
+	
+	@AfterEach
+	void tearDown() {
+		ServerTiming.end();
+	}
+	
+	@Test
+	void unsampledRequestsRecordNothing() {
+		assertThat(ServerTiming.start()).isZero();
+		final Runnable task = () -> {};
+		assertThat(ServerTiming.propagate(task)).isSameAs(task);
+	}
+	
+	@Test
+	void spansRecordedOnOtherThreadsAreReported() throws InterruptedException {
+		final ServerTiming serverTiming = ServerTiming.begin();
+		ServerTiming.record(Span.JWT, 1_500_000L);
+		final Thread branch = new Thread(ServerTiming.propagate(() -> {
+			ServerTiming.record(Span.UPSTREAM, 2_000_000L);
+			ServerTiming.record(Span.UPSTREAM, 1_000_000L);
+		}));
+		branch.start();
+		branch.join();
+		
+		assertThat(serverTiming.toHeaderValue())
+				.startsWith("jwt;dur=1.500;desc=\"token parse and validation\", upstream;dur=3.000;desc=\"Feign calls x2\", total;dur=")
+				.doesNotContain("owner");
+	}
+	
+}
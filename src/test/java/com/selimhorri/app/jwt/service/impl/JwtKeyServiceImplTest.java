@@ -0,0 +1,91 @@
+package com.selimhorri.app.jwt.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.selimhorri.app.config.jwt.JwtProperties;
+import com.selimhorri.app.jwt.util.impl.JwtUtilImpl;
+import com.selimhorri.app.jwt.util.impl.LeanJwtCodec;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+
+class JwtKeyServiceImplTest {
+	
+	private static final UserDetails USER = User.withUsername("selim")
+			.password("")
+			.authorities(Collections.emptyList())
+			.build();
+	
+	@TempDir
+	Path directory;
+	
+	@Test
+	void tokensWithoutKidStillVerifyAgainstTheSecret() {
+		final JwtProperties jwtProperties = new JwtProperties();
+		final JwtUtilImpl jwtUtil = new JwtUtilImpl(new LeanJwtCodec(new JwtKeyServiceImpl(jwtProperties)), jwtProperties);
+		final String token = Jwts.builder()
+				.setSubject("selim")
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000L))
+				.signWith(SignatureAlgorithm.HS256, "secret")
+				.compact();
+		
+		assertThat(jwtUtil.validateToken(token, USER)).isTrue();
+		assertThat(jwtUtil.validateToken(jwtUtil.generateToken(USER, "1"), USER)).isTrue();
+	}
+	
+	@Test
+	void rotatedKeysKeepVerifyingUntilRemoved() throws Exception {
+		final JwtProperties jwtProperties = new JwtProperties();
+		jwtProperties.setKeyDirectory(this.directory.toString());
+		final JwtKeyServiceImpl jwtKeyService = new JwtKeyServiceImpl(jwtProperties);
+		final JwtUtilImpl jwtUtil = new JwtUtilImpl(new LeanJwtCodec(jwtKeyService), jwtProperties);
+		
+		this.writeKeyPair("2026-01", 1_000L);
+		final String previous = jwtUtil.generateToken(USER, "1");
+		this.writeKeyPair("2026-02", 2_000L);
+		jwtKeyService.reload();
+		
+		assertThat(jwtKeyService.getSigningKey().getKid()).isEqualTo("2026-02");
+		assertThat(jwtUtil.validateToken(previous, USER)).isTrue();
+		assertThat(jwtUtil.validateToken(jwtUtil.generateToken(USER, "1"), USER)).isTrue();
+		
+		Files.delete(this.directory.resolve("2026-01.key"));
+		Files.delete(this.directory.resolve("2026-01.pub"));
+		jwtKeyService.reload();
+		assertThatThrownBy(() -> jwtUtil.validateToken(previous, USER)).isInstanceOf(SignatureException.class);
+	}
+	
+	private void writeKeyPair(final String kid, final long lastModified) throws Exception {
+		final KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		final KeyPair keyPair = generator.generateKeyPair();
+		final Path privateKey = this.directory.resolve(kid + ".key");
+		Files.writeString(privateKey, pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+		Files.writeString(this.directory.resolve(kid + ".pub"), pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+		Files.setLastModifiedTime(privateKey, FileTime.fromMillis(lastModified));
+	}
+	
+	private static String pem(final String type, final byte[] encoded) {
+		return "-----BEGIN " + type + "-----\n"
+				+ Base64.getMimeEncoder().encodeToString(encoded)
+				+ "\n-----END " + type + "-----\n";
+	}
+	
+}
@@ -0,0 +1,43 @@
+package com.selimhorri.app.jwt.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.config.jwt.JwtProperties;
+import com.selimhorri.app.jwt.util.TokenBloomFilter;
+
+class TokenRevocationServiceImplTest {
+	
+	private static final long NOW = System.currentTimeMillis() / 1000L;
+	
+	@Test
+	void tokenIdsAreRevokedOnceUntilTheyExpire() {
+		final TokenRevocationServiceImpl tokenRevocationService = new TokenRevocationServiceImpl(new JwtProperties());
+		
+		assertThat(tokenRevocationService.revoke("refresh-1", NOW + 60L)).isTrue();
+		assertThat(tokenRevocationService.revoke("refresh-1", NOW + 60L)).isFalse();
+		assertThat(tokenRevocationService.revoke("expired-1", NOW - 60L)).isTrue();
+		assertThat(tokenRevocationService.isRevoked("refresh-1")).isTrue();
+		assertThat(tokenRevocationService.isRevoked("refresh-2")).isFalse();
+		
+		tokenRevocationService.prune();
+		assertThat(tokenRevocationService.isRevoked("refresh-1")).isTrue();
+		assertThat(tokenRevocationService.isRevoked("expired-1")).isFalse();
+	}
+	
+	@Test
+	void bloomFilterStaysNearItsFalsePositiveRate() {
+		final TokenBloomFilter filter = TokenBloomFilter.create(10_000, 0.01);
+		IntStream.range(0, 10_000).forEach(i -> filter.add(UUID.randomUUID().toString()));
+		
+		final long falsePositives = IntStream.range(0, 100_000)
+				.filter(i -> filter.mightContain(UUID.randomUUID().toString()))
+				.count();
+		assertThat(falsePositives).isLessThan(2_000L);
+	}
+	
+}
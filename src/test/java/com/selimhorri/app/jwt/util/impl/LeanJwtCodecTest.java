@@ -0,0 +1,91 @@
+package com.selimhorri.app.jwt.util.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.jwt.model.JwtClaims;
+import com.selimhorri.app.jwt.model.JwtKey;
+import com.selimhorri.app.jwt.model.JwtKeyRing;
+import com.selimhorri.app.jwt.service.JwtKeyService;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+
+class LeanJwtCodecTest {
+	
+	private static final long NOW = System.currentTimeMillis() / 1000L;
+	private static final JwtClaims CLAIMS = JwtClaims.builder()
+			.tokenId("5f1c0c2e")
+			.type(JwtClaims.ACCESS)
+			.subject("selim")
+			.userId("1")
+			.roles(List.of("ROLE_USER"))
+			.issuedAt(NOW)
+			.expiration(NOW + 60L)
+			.build();
+	
+	@Test
+	void tokensReadTheSameAsWithJjwt() throws Exception {
+		final KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		final KeyPair keyPair = generator.generateKeyPair();
+		final SecretKeySpec secret = new SecretKeySpec(new byte[32], SignatureAlgorithm.HS256.getJcaName());
+		
+		for (final JwtKey key : List.of(new JwtKey("hs", SignatureAlgorithm.HS256, secret, secret, 0L),
+				new JwtKey("es", SignatureAlgorithm.ES256, keyPair.getPrivate(), keyPair.getPublic(), 0L))) {
+			final JwtKeyService jwtKeyService = keyService(key);
+			final LeanJwtCodec lean = new LeanJwtCodec(jwtKeyService);
+			final JjwtCodec jjwt = new JjwtCodec(jwtKeyService);
+			
+			assertThat(jjwt.decode(lean.encode(CLAIMS))).isEqualTo(CLAIMS);
+			assertThat(lean.decode(jjwt.encode(CLAIMS))).isEqualTo(CLAIMS);
+		}
+	}
+	
+	@Test
+	void forgedAndExpiredTokensAreRejected() {
+		final SecretKeySpec secret = new SecretKeySpec(new byte[32], SignatureAlgorithm.HS256.getJcaName());
+		final LeanJwtCodec lean = new LeanJwtCodec(keyService(new JwtKey("hs", SignatureAlgorithm.HS256, secret, secret, 0L)));
+		final String[] parts = lean.encode(CLAIMS).split("\\.");
+		final String admin = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"sub\":\"admin\"}".getBytes());
+		final String none = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"alg\":\"none\",\"kid\":\"hs\"}".getBytes());
+		
+		assertThatThrownBy(() -> lean.decode(parts[0] + "." + admin + "." + parts[2])).isInstanceOf(SignatureException.class);
+		assertThatThrownBy(() -> lean.decode(none + "." + parts[1] + ".")).isInstanceOf(SignatureException.class);
+		assertThatThrownBy(() -> lean.decode(lean.encode(CLAIMS.toBuilder().issuedAt(NOW - 120L).expiration(NOW - 60L).build())))
+				.isInstanceOf(ExpiredJwtException.class);
+	}
+	
+	private static JwtKeyService keyService(final JwtKey key) {
+		final JwtKeyRing keyRing = JwtKeyRing.of(List.of(key), null);
+		return new JwtKeyService() {
+			
+			@Override
+			public JwtKey getSigningKey() {
+				return keyRing.getSigningKey();
+			}
+			
+			@Override
+			public JwtKey findKey(final String kid) {
+				return keyRing.find(kid);
+			}
+			
+			@Override
+			public void reload() {
+			}
+			
+		};
+	}
+	
+}
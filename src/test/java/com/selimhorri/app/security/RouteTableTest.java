@@ -0,0 +1,118 @@
+package com.selimhorri.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+class RouteTableTest {
+	
+	private static final List<Authentication> CALLERS = List.of(
+			new AnonymousAuthenticationToken("key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")),
+			new UsernamePasswordAuthenticationToken("user", null, AuthorityUtils.createAuthorityList("ROLE_USER")),
+			new UsernamePasswordAuthenticationToken("admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+	
+	/**
+	 * Every route of the rule set, with ids, trailing slashes, extra segments and a few paths no rule
+	 * names, under every method: the table must pick the rule the antMatchers chain picked.
+	 */
+	@Test
+	void tableDecidesLikeTheAntMatcherChain() {
+		final List<RouteTable.Rule> rules = SecurityRoutes.TABLE.getRules();
+		final List<AntPathRequestMatcher> chain = rules.stream()
+				.map(rule -> new AntPathRequestMatcher(rule.getPattern(), rule.getMethod() == null ? null : rule.getMethod().name()))
+				.collect(Collectors.toList());
+		final List<String> methods = Stream.concat(Stream.of(HttpMethod.values()).map(HttpMethod::name), Stream.of("PROPFIND", ""))
+				.collect(Collectors.toList());
+		
+		int checked = 0;
+		for (final String path : paths(rules))
+			for (final String method : methods) {
+				final MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+				request.setServletPath(path);
+				int expected = -1;
+				for (int i = 0; i < chain.size() && expected < 0; i++)
+					if (chain.get(i).matches(request))
+						expected = i;
+				assertThat(SecurityRoutes.TABLE.match(method, path)).as("%s %s", method, path).isEqualTo(expected);
+				final RouteAccess access = SecurityRoutes.TABLE.resolve(method, path);
+				for (final Authentication caller : CALLERS)
+					assertThat(access.isGranted(caller)).isEqualTo(expected < 0 ? caller.getAuthorities().stream()
+							.noneMatch(authority -> "ROLE_ANONYMOUS".equals(authority.getAuthority()))
+							: rules.get(expected).getAccess().isGranted(caller));
+				checked++;
+			}
+		assertThat(checked).isGreaterThan(5000);
+	}
+	
+	@Test
+	void rolesAreEnforcedPerMethod() {
+		final Authentication user = CALLERS.get(1);
+		final Authentication admin = CALLERS.get(2);
+		assertThat(SecurityRoutes.TABLE.resolve("GET", "/api/products/7").isPermitAll()).isTrue();
+		assertThat(SecurityRoutes.TABLE.resolve("DELETE", "/api/products/7").isGranted(user)).isFalse();
+		assertThat(SecurityRoutes.TABLE.resolve("DELETE", "/api/products/7").isGranted(admin)).isTrue();
+		assertThat(SecurityRoutes.TABLE.resolve("PATCH", "/api/orders/7/status").isGranted(user)).isFalse();
+		assertThat(SecurityRoutes.TABLE.resolve("GET", "/actuator/prometheus").isGranted(user)).isFalse();
+		assertThat(SecurityRoutes.TABLE.resolve("GET", "/actuator/health/readiness").isPermitAll()).isTrue();
+		assertThatThrownBy(() -> RouteTable.builder().rule("/api/{id}", RouteAccess.permitAll()).build(RouteAccess.authenticated()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+	
+	@Test
+	void publicRoutesAreThePermitAllOnes() {
+		assertThat(SecurityRoutes.isPublic(request("GET", "/api/products"))).isTrue();
+		assertThat(SecurityRoutes.isPublic(request("GET", "/api/categories/3/breadcrumb"))).isTrue();
+		assertThat(SecurityRoutes.isPublic(request("OPTIONS", "/api/orders"))).isTrue();
+		assertThat(SecurityRoutes.isPublic(request("GET", "/actuator/health/liveness"))).isTrue();
+		assertThat(SecurityRoutes.isPublic(request("POST", "/api/products"))).isFalse();
+		assertThat(SecurityRoutes.isPublic(request("GET", "/api/users"))).isFalse();
+		assertThat(SecurityRoutes.isPublic(request("GET", "/swagger-ui.html"))).isFalse();
+	}
+	
+	private static MockHttpServletRequest request(final String method, final String path) {
+		final MockHttpServletRequest request = new MockHttpServletRequest(method, "/app" + path);
+		request.setContextPath("/app");
+		request.setServletPath(path);
+		return request;
+	}
+	
+	private static Set<String> paths(final List<RouteTable.Rule> rules) {
+		final Set<String> paths = new LinkedHashSet<>(List.of("", "/", "//", "/index", "/css/site.css",
+				"/static/css/site.css", "/js/app.js", "/api", "/api/", "/apix", "/API/users", "/api/unknown",
+				"/api/unknown/1/2", "/actuator", "/actuator/", "/actuator/health", "/actuator/health/liveness",
+				"/actuator/healthz", "/actuator/info", "/actuator/prometheus", "/error", "/app/api/users"));
+		for (final RouteTable.Rule rule : rules) {
+			final List<String> variants = new ArrayList<>();
+			for (final String id : List.of("42", "username", "detail", "*"))
+				variants.add(rule.getPattern().replace("**", "a/b").replace("*", id));
+			variants.add(rule.getPattern().replace("/**", ""));
+			variants.add(rule.getPattern().replace("/*", ""));
+			for (final String variant : variants) {
+				paths.add(variant);
+				paths.add(variant + "/");
+				paths.add(variant + "/7");
+				paths.add(variant + "/7/status");
+				paths.add(variant + "x");
+			}
+		}
+		// servlet paths are rooted, only the empty one isn't
+		paths.removeIf(path -> !path.isEmpty() && !path.startsWith("/"));
+		return paths;
+	}
+	
+}